@@ -0,0 +1,379 @@
+package Benchmarks;
+
+// Import Java API Classes
+import java.io.CharArrayReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+// Import Project Classes
+import CodeTables.BinaryCodeIndex;
+import CodeTables.CodeTable;
+import CodeTables.CodeTableRegistry;
+import CodeTables.MorseCodeTree;
+import InputMessageTypes.InputMessage;
+import InputMessageTypes.MappedMessageSource;
+import InputMessageTypes.ReaderMessageSource;
+import OutputMessageTypes.OutputMessage;
+import Translator.MessageType;
+import Translator.Translator;
+
+public class TranslatorBenchmark {
+  // -----------------------------------------------------------
+  // Microbenchmarks of every translation direction (each
+  // test_X_Y.txt combination) and of the components they are
+  // built from: getOrdinal, readLetter/readSymbol, writeLetter
+  // and code table loading, plus in-memory translation of short
+  // messages.
+  //
+  // Usage (from the project directory, so Data/ is found):
+  //   java Benchmarks.TranslatorBenchmark [--sizes n,n,...]
+  //        [--word-lengths n,n,...] [--warmup n]
+  //        [--iterations n] [name-filter]
+  //
+  // Message sizes are in letters. Each result line gives the
+  // average time per operation, the throughput in input bytes
+  // and the bytes allocated per operation (through the JVM's
+  // per-thread allocation counter), so allocation regressions
+  // show up next to time regressions.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  private static final int WORDS_PER_SENTENCE = 10;
+  private static final int SHORT_MESSAGE_SIZE = 100;
+  private static final int SHORT_MESSAGES_PER_OP = 10000;
+
+  // Benchmark Settings
+  private static int[] sizes = {1000, 100000, 1000000};
+  private static int[] word_lengths = {3, 8};
+  private static int warmup_iterations = 5;
+  private static int measured_iterations = 10;
+  private static String name_filter = "";
+
+  // Result sink (keeps results of benchmarked code live)
+  private static volatile long sink;
+
+  private static com.sun.management.ThreadMXBean thread_bean =
+      (com.sun.management.ThreadMXBean)
+                              ManagementFactory.getThreadMXBean();
+
+  private interface Operation {
+    long run() throws Exception;
+    // ---------------------------------------------------------
+    // Runs the operation once and returns number of input
+    // bytes (or letters) processed, or 0 if not applicable.
+    // ---------------------------------------------------------
+  }
+
+  public static void main(String[] args) throws Exception {
+    readArguments(args);
+
+    System.out.printf("%-44s %12s %12s %14s%n", "benchmark",
+                      "us/op", "MB/s", "alloc B/op");
+
+    benchmarkTableLoading();
+    benchmarkInMemory();
+
+    for(int size : sizes)
+      for(int word_length : word_lengths) {
+        File directory = Files.createTempDirectory("bench").toFile();
+        try {
+          benchmarkDirections(size, word_length, directory);
+          benchmarkComponents(size, word_length);
+        }
+        finally {
+          for(File file : directory.listFiles())
+            file.delete();
+          directory.delete();
+        }
+      }
+  }
+
+  // Benchmarks
+
+  private static void benchmarkTableLoading() throws Exception {
+    measure("tables.load.morse", new Operation() {
+      public long run() throws IOException {
+        sink = new MorseCodeTree(
+                    CodeTable.load("Data/MorseCode_Table.txt")).hashCode();
+        return 0;
+      }
+    });
+
+    measure("tables.load.binary", new Operation() {
+      public long run() throws IOException {
+        sink = new BinaryCodeIndex(
+                    CodeTable.load("Data/BinaryCode_Table.txt")).hashCode();
+        return 0;
+      }
+    });
+
+    measure("tables.registry", new Operation() {
+      public long run() throws IOException {
+        sink = CodeTableRegistry.getMorseCodeTree().hashCode() +
+               CodeTableRegistry.getBinaryCodeIndex().hashCode();
+        return 0;
+      }
+    });
+  }
+
+  private static void benchmarkInMemory() throws Exception {
+  // -----------------------------------------------------------
+  // Translates SHORT_MESSAGES_PER_OP messages of about
+  // SHORT_MESSAGE_SIZE bytes in memory per operation (divide
+  // times and allocations by that count for one message).
+  // -----------------------------------------------------------
+    for(final MessageType input_type : MessageType.values()) {
+      final byte[] message = createMessage(input_type, 
+                                     SHORT_MESSAGE_SIZE * 4 / 5, 5);
+
+      for(final MessageType output_type : MessageType.values())
+        measure("inMemory." + input_type + "_" + output_type +
+                "[x" + SHORT_MESSAGES_PER_OP + "]", new Operation() {
+          public long run() throws IOException {
+            long sum = 0;
+
+            for(int i = 0; i < SHORT_MESSAGES_PER_OP; i++)
+              sum = sum + Translator.translate(message, input_type,
+                                               output_type).length;
+
+            sink = sum;
+            return (long) message.length * SHORT_MESSAGES_PER_OP;
+          }
+        });
+    }
+  }
+
+  private static void benchmarkDirections(int size, int word_length,
+                            File directory) throws Exception {
+  // -----------------------------------------------------------
+  // Translates a message of each type to each type, reading a
+  // memory-mapped file and discarding the output.
+  // -----------------------------------------------------------
+    String params = "[" + size + "," + word_length + "]";
+
+    for(final MessageType input_type : MessageType.values()) {
+      final File input_file = new File(directory,
+                      "bench" + input_type.getFileType() + ".txt");
+      byte[] message = createMessage(input_type, size, word_length);
+      Files.write(input_file.toPath(), message);
+      final long length = message.length;
+
+      for(final MessageType output_type : MessageType.values())
+        measure("translate." + input_type + "_" + output_type + params,
+                new Operation() {
+          public long run() throws IOException {
+            new Translator(
+              input_type.createInputMessage(
+                  new MappedMessageSource(input_file.getPath())),
+              output_type.createOutputMessage(
+                  new PrintWriter(Writer.nullWriter()))).translate();
+            return length;
+          }
+        });
+    }
+  }
+
+  private static void benchmarkComponents(int size, int word_length)
+                                              throws Exception {
+  // -----------------------------------------------------------
+  // Benchmarks getOrdinal, readLetter, readSymbol and
+  // writeLetter of each message type.
+  // -----------------------------------------------------------
+    String params = "[" + size + "," + word_length + "]";
+
+    for(final MessageType type : MessageType.values()) {
+      final byte[] message = createMessage(type, size, word_length);
+      final char[] message_chars =
+          new String(message, StandardCharsets.ISO_8859_1).toCharArray();
+      final String[] letters = sampleLetters(type, 1024);
+
+      measure("getOrdinal." + type + params, new Operation() {
+        public long run() throws IOException {
+          InputMessage input = type.createInputMessage(
+              new ReaderMessageSource(new CharArrayReader(message_chars)));
+          long sum = 0;
+
+          for(int i = 0; i < message.length; i++)
+            sum = sum + input.getOrdinal(letters[i & 1023]);
+
+          sink = sum;
+          return message.length;
+        }
+      });
+
+      measure("readLetter." + type + params, new Operation() {
+        public long run() throws IOException {
+          InputMessage input = type.createInputMessage(
+              new ReaderMessageSource(new CharArrayReader(message_chars)));
+
+          while(input.readLetter() != null)
+            ;
+          return message.length;
+        }
+      });
+
+      measure("readSymbol." + type + params, new Operation() {
+        public long run() throws IOException {
+          InputMessage input = type.createInputMessage(
+              new ReaderMessageSource(new CharArrayReader(message_chars)));
+
+          while(input.readSymbol() != InputMessage.END_OF_MESSAGE)
+            ;
+          return message.length;
+        }
+      });
+
+      final int letter_count = size;
+      measure("writeLetter." + type + params, new Operation() {
+        public long run() throws IOException {
+          OutputMessage output = type.createOutputMessage(
+                              new PrintWriter(Writer.nullWriter()));
+
+          for(int i = 0; i < letter_count; i++)
+            output.writeLetter(i % ALPHABET.length());
+
+          output.close();
+          return letter_count;
+        }
+      });
+    }
+  }
+
+  // Measurement
+
+  private static void measure(String name, Operation operation)
+                                              throws Exception {
+  // -----------------------------------------------------------
+  // Runs operation warmup_iterations times, then reports the
+  // averages of measured_iterations further runs.
+  // -----------------------------------------------------------
+    if(!name.contains(name_filter))
+      return;
+
+    long thread_id = Thread.currentThread().getId();
+
+    for(int i = 0; i < warmup_iterations; i++)
+      operation.run();
+
+    long bytes = 0;
+    long allocated = thread_bean.getThreadAllocatedBytes(thread_id);
+    long start = System.nanoTime();
+
+    for(int i = 0; i < measured_iterations; i++)
+      bytes = bytes + operation.run();
+
+    long elapsed = System.nanoTime() - start;
+    allocated = thread_bean.getThreadAllocatedBytes(thread_id) - allocated;
+
+    double micros_per_op = elapsed / 1000.0 / measured_iterations;
+    String mb_per_second = "-";
+
+    if(bytes > 0)
+      mb_per_second = String.format("%.1f", bytes / 1e6 / (elapsed / 1e9));
+
+    System.out.printf("%-44s %12.1f %12s %14d%n", name,
+                      micros_per_op, mb_per_second,
+                      allocated / measured_iterations);
+  }
+
+  // Message Generation
+
+  private static byte[] createMessage(MessageType type, int size,
+                                      int word_length) throws IOException {
+  // -----------------------------------------------------------
+  // Returns a message of type holding size random letters, in
+  // words of word_length letters and sentences of
+  // WORDS_PER_SENTENCE words (same seed, so runs compare).
+  // -----------------------------------------------------------
+    Random random = new Random(size * 31L + word_length);
+    StringBuilder english = new StringBuilder();
+    int words = 0;
+
+    for(int letters = 0; letters < size; ) {
+      for(int i = 0; i < word_length && letters < size; i++, letters++)
+        english.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+
+      words = words + 1;
+      if(words % WORDS_PER_SENTENCE == 0 || letters >= size)
+        english.append('\n');
+      else
+        english.append(' ');
+    }
+
+    if(type == MessageType.ENGLISH)
+      return english.toString().getBytes(StandardCharsets.US_ASCII);
+
+    // Encode through the translator itself
+    StringWriter encoded = new StringWriter();
+    new Translator(
+      MessageType.ENGLISH.createInputMessage(
+          new ReaderMessageSource(new StringReader(english.toString()))),
+      type.createOutputMessage(new PrintWriter(encoded))).translate();
+
+    return encoded.toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static String[] sampleLetters(MessageType type, int count)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Returns count random letters encoded as type.
+  // -----------------------------------------------------------
+    CodeTable table = CodeTableRegistry.getMorseCode();
+    if(type == MessageType.BINARY || type == MessageType.BINPACKED)
+      table = CodeTableRegistry.getBinaryCode();
+
+    Random random = new Random(count);
+    String[] letters = new String[count];
+
+    for(int i = 0; i < count; i++) {
+      int ordinal_value = random.nextInt(ALPHABET.length());
+
+      if(type == MessageType.ENGLISH)
+        letters[i] = ALPHABET.substring(ordinal_value, ordinal_value + 1);
+      else
+        if(type == MessageType.BINPACKED)
+          letters[i] = Character.toString(
+                (char) BinaryCodeIndex.toCode(table.getCode(ordinal_value)));
+        else
+          letters[i] = table.getCode(ordinal_value);
+    }
+    return letters;
+  }
+
+  private static void readArguments(String[] args) {
+    for(int i = 0; i < args.length; i++) {
+      if(args[i].equals("--sizes"))
+        sizes = parseList(args[++i]);
+      else
+        if(args[i].equals("--word-lengths"))
+          word_lengths = parseList(args[++i]);
+        else
+          if(args[i].equals("--warmup"))
+            warmup_iterations = Integer.parseInt(args[++i]);
+          else
+            if(args[i].equals("--iterations"))
+              measured_iterations = Integer.parseInt(args[++i]);
+            else
+              name_filter = args[i];
+    }
+  }
+
+  private static int[] parseList(String list) {
+    String[] items = list.split(",");
+    int[] values = new int[items.length];
+
+    for(int i = 0; i < items.length; i++)
+      values[i] = Integer.parseInt(items[i].trim());
+
+    return values;
+  }
+}
@@ -0,0 +1,146 @@
+package CodeTables;
+
+// Import Java API Classes
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+public class BinaryCodeIndex {
+
+  // Symbolic Constants
+  public static final int NOT_FOUND = -1;
+  public static final int CODE_LENGTH = 8;
+
+  // 8 ASCII bits as a long (first bit in the top byte)
+  private static final VarHandle LONG_BIG_ENDIAN =
+      MethodHandles.byteArrayViewVarHandle(long[].class,
+                                           ByteOrder.BIG_ENDIAN);
+  private static final long ZEROS = 0x3030303030303030L;
+  private static final long LOW_BITS = 0x0101010101010101L;
+  private static final long GATHER_BITS = 0x0102040810204080L;
+
+  // Instance Variables
+  private final int[] ordinal_of_code = new int[1 << CODE_LENGTH];
+
+  // Constructor
+  public BinaryCodeIndex(CodeTable binary_code) {
+  // -----------------------------------------------------------
+  // Constructs the index of the codes in binary_code. Every
+  // 8-bit code is used directly as an array index, so a lookup
+  // is a single load. Throws IllegalArgumentException if a code
+  // is not exactly 8 chars of '0' and '1'.
+  // -----------------------------------------------------------
+    for(int i = 0; i < ordinal_of_code.length; i++)
+      ordinal_of_code[i] = NOT_FOUND;
+
+    for(int i = 0; i < binary_code.size(); i++) {
+      int code = toCode(binary_code.getCode(i));
+
+      if(code == NOT_FOUND)
+        throw new IllegalArgumentException(binary_code.getCode(i));
+
+      ordinal_of_code[code] = i;
+    }
+  }
+
+  public int getOrdinal(int code) {
+  // -----------------------------------------------------------
+  // Returns ordinal value of the letter with 8-bit code, or
+  // NOT_FOUND if no letter has that code.
+  // -----------------------------------------------------------
+    return ordinal_of_code[code & 0xFF];
+  }
+
+  public boolean isPackable() {
+  // -----------------------------------------------------------
+  // Returns true if every code is an ASCII char other than a
+  // blank or line terminator, so each letter can be stored as
+  // a single byte of a text file (as in packed binary
+  // messages, where those chars separate words and sentences).
+  // -----------------------------------------------------------
+    for(int code = 0; code < ordinal_of_code.length; code++)
+      if(ordinal_of_code[code] != NOT_FOUND &&
+         (code >= 0x80 || code == ' ' || code == '\n' || code == '\r'))
+        return false;
+
+    return true;
+  }
+
+  public int getOrdinal(String bits) {
+  // -----------------------------------------------------------
+  // Returns ordinal value of the letter encoded by bits, or
+  // NOT_FOUND if bits is not the code of a letter.
+  // -----------------------------------------------------------
+    int code = toCode(bits);
+
+    if(code == NOT_FOUND)
+      return NOT_FOUND;
+
+    return ordinal_of_code[code];
+  }
+
+  public static int toCode(String bits) {
+  // -----------------------------------------------------------
+  // Returns the value of the 8-bit code bits, or NOT_FOUND if
+  // bits is not exactly 8 chars of '0' and '1'.
+  // -----------------------------------------------------------
+    if(bits.length() != CODE_LENGTH)
+      return NOT_FOUND;
+
+    int code = 0;
+
+    for(int i = 0; i < CODE_LENGTH; i++) {
+      char bit = bits.charAt(i);
+
+      if(bit != '0' && bit != '1')
+        return NOT_FOUND;
+
+      code = (code << 1) | (bit - '0');
+    }
+    return code;
+  }
+
+  public static int toCode(byte[] bits, int start) {
+  // -----------------------------------------------------------
+  // Returns the value of the 8-bit code held as ASCII '0' and
+  // '1' bytes in bits[start..start+7], or NOT_FOUND if any of
+  // them is not a '0' or '1'.
+  //
+  // The 8 bytes are handled at once, as one long (SWAR): they
+  // are all '0' or '1' if clearing their low bits leaves eight
+  // '0's, and their low bits are gathered into the top byte
+  // of a product (bit i of each byte moved to bit 63-i).
+  // -----------------------------------------------------------
+    long chars = (long) LONG_BIG_ENDIAN.get(bits, start);
+
+    if((chars & ~LOW_BITS) != ZEROS)
+      return NOT_FOUND;
+
+    return (int) (((chars & LOW_BITS) * GATHER_BITS) >>> 56);
+  }
+
+  public int decode(byte[] bits, int start, int length,
+                    int[] ordinals) {
+  // -----------------------------------------------------------
+  // Decodes the 8-bit codes held as ASCII '0' and '1' bytes in
+  // bits[start..start+length-1] (e.g. a line of a Binary
+  // message) into ordinals[0], ordinals[1], ... (NOT_FOUND for
+  // a code of no letter). Stops at the first code that is not
+  // 8 '0' or '1' bytes. Returns the number of codes decoded.
+  // -----------------------------------------------------------
+    int count = 0;
+    int end = start + length - CODE_LENGTH;
+
+    for(int i = start; i <= end; i += CODE_LENGTH) {
+      long chars = (long) LONG_BIG_ENDIAN.get(bits, i);
+
+      if((chars & ~LOW_BITS) != ZEROS)
+        break;
+
+      ordinals[count] = 
+          ordinal_of_code[(int) (((chars & LOW_BITS) * GATHER_BITS) >>> 56)];
+      count = count + 1;
+    }
+    return count;
+  }
+}
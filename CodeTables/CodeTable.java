@@ -0,0 +1,94 @@
+package CodeTables;
+
+// Import Java API Classes
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+public class CodeTable {
+
+  // Instance Variables
+  private final String[] letters;
+  private final String[] codes;
+  private final char[][] code_lines;
+
+  // Constructor
+  private CodeTable(String[] letters, String[] codes) {
+  // -----------------------------------------------------------
+  // Constructs an immutable table where letters[n] is encoded
+  // as codes[n] (n being the ordinal value of the letter).
+  // -----------------------------------------------------------
+    this.letters = letters;
+    this.codes = codes;
+
+    // Precompute each code as the chars of an output line
+    code_lines = new char[codes.length][];
+    for(int i = 0; i < codes.length; i++)
+      code_lines[i] = (codes[i] + "\n").toCharArray();
+  }
+
+  public static CodeTable load(String file_name) throws 
+                            FileNotFoundException, IOException {
+  // -----------------------------------------------------------
+  // Reads a code table text file where each line holds a letter
+  // followed by its code (e.g. "A.-" or "A01000001"), in
+  // ordinal order.
+  //
+  // Throws FileNotFoundException if file not found.
+  // -----------------------------------------------------------
+    ArrayList<String> letters = new ArrayList<String>();
+    ArrayList<String> codes = new ArrayList<String>();
+
+    try (BufferedReader input_file = 
+                new BufferedReader(new FileReader(file_name))) {
+      String line = input_file.readLine();
+
+      // Continue reading lines until end of file
+      while(line != null) {
+
+        // Read letter part of code file
+        letters.add(line.substring(0, 1));
+
+        // Read corresponding code of letter
+        codes.add(line.substring(1, line.length()));
+
+        line = input_file.readLine();
+      }
+    }
+
+    return new CodeTable(letters.toArray(new String[0]),
+                         codes.toArray(new String[0]));
+  }
+
+  public int size() {
+  // -----------------------------------------------------------
+  // Returns number of letters in the table.
+  // -----------------------------------------------------------
+    return codes.length;
+  }
+
+  public String getLetter(int ordinal_value) {
+  // -----------------------------------------------------------
+  // Returns letter with ordinal value n.
+  // -----------------------------------------------------------
+    return letters[ordinal_value];
+  }
+
+  public String getCode(int ordinal_value) {
+  // -----------------------------------------------------------
+  // Returns encoded letter with ordinal value n.
+  // -----------------------------------------------------------
+    return codes[ordinal_value];
+  }
+
+  public char[] getCodeLine(int ordinal_value) {
+  // -----------------------------------------------------------
+  // Returns encoded letter with ordinal value n followed by
+  // '\n', as written by the output messages (one code per
+  // line). The array is shared and must not be modified.
+  // -----------------------------------------------------------
+    return code_lines[ordinal_value];
+  }
+}
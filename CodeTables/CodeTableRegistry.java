@@ -0,0 +1,131 @@
+package CodeTables;
+
+// Import Java API Classes
+import java.io.IOException;
+
+public final class CodeTableRegistry {
+  // -----------------------------------------------------------
+  // Process-wide registry of the code tables in Data/. Each
+  // table is read and compiled the first time it is requested
+  // and then shared (read-only) by every message object and
+  // thread, so constructing messages costs no file I/O.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final String MORSE_CODE_FILENAME =
+                                  "Data/MorseCode_Table.txt";
+  private static final String BINARY_CODE_FILENAME =
+                                  "Data/BinaryCode_Table.txt";
+
+  // Shared Tables (published once, never modified)
+  private static volatile CodeTable morse_code;
+  private static volatile CodeTable binary_code;
+  private static volatile MorseCodeTree morse_code_tree;
+  private static volatile BinaryCodeIndex binary_code_index;
+
+  // Total time spent reading and compiling tables
+  private static volatile long load_nanos = 0;
+
+  private CodeTableRegistry() {
+  }
+
+  public static CodeTable getMorseCode() throws IOException {
+  // -----------------------------------------------------------
+  // Returns the Morse code table, loading it on first use.
+  // -----------------------------------------------------------
+    CodeTable table = morse_code;
+
+    if(table == null) {
+      synchronized(CodeTableRegistry.class) {
+        if(morse_code == null)
+          morse_code = timedLoad(MORSE_CODE_FILENAME);
+        table = morse_code;
+      }
+    }
+    return table;
+  }
+
+  public static CodeTable getBinaryCode() throws IOException {
+  // -----------------------------------------------------------
+  // Returns the Binary code table, loading it on first use.
+  // -----------------------------------------------------------
+    CodeTable table = binary_code;
+
+    if(table == null) {
+      synchronized(CodeTableRegistry.class) {
+        if(binary_code == null)
+          binary_code = timedLoad(BINARY_CODE_FILENAME);
+        table = binary_code;
+      }
+    }
+    return table;
+  }
+
+  public static MorseCodeTree getMorseCodeTree() throws IOException {
+  // -----------------------------------------------------------
+  // Returns the dit/dah decoding tree of the Morse code table,
+  // compiling it on first use.
+  // -----------------------------------------------------------
+    MorseCodeTree tree = morse_code_tree;
+
+    if(tree == null) {
+      CodeTable table = getMorseCode();
+
+      synchronized(CodeTableRegistry.class) {
+        if(morse_code_tree == null) {
+          long start = System.nanoTime();
+          morse_code_tree = new MorseCodeTree(table);
+          load_nanos = load_nanos + (System.nanoTime() - start);
+        }
+        tree = morse_code_tree;
+      }
+    }
+    return tree;
+  }
+
+  public static BinaryCodeIndex getBinaryCodeIndex() throws 
+                                                  IOException {
+  // -----------------------------------------------------------
+  // Returns the 8-bit decoding index of the Binary code table,
+  // compiling it on first use.
+  // -----------------------------------------------------------
+    BinaryCodeIndex index = binary_code_index;
+
+    if(index == null) {
+      CodeTable table = getBinaryCode();
+
+      synchronized(CodeTableRegistry.class) {
+        if(binary_code_index == null) {
+          long start = System.nanoTime();
+          binary_code_index = new BinaryCodeIndex(table);
+          load_nanos = load_nanos + (System.nanoTime() - start);
+        }
+        index = binary_code_index;
+      }
+    }
+    return index;
+  }
+
+  public static long getLoadNanos() {
+  // -----------------------------------------------------------
+  // Returns total time spent reading and compiling the tables
+  // loaded so far, in nanoseconds.
+  // -----------------------------------------------------------
+    return load_nanos;
+  }
+
+  // Private Methods
+
+  private static CodeTable timedLoad(String file_name) throws
+                                                  IOException {
+  // -----------------------------------------------------------
+  // Loads table file_name, adding the time taken to
+  // load_nanos. Called only while holding the registry lock.
+  // -----------------------------------------------------------
+    long start = System.nanoTime();
+    CodeTable table = CodeTable.load(file_name);
+
+    load_nanos = load_nanos + (System.nanoTime() - start);
+    return table;
+  }
+}
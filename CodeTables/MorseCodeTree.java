@@ -0,0 +1,107 @@
+package CodeTables;
+
+public class MorseCodeTree {
+
+  // Symbolic Constants
+  public static final int NOT_FOUND = -1;
+  private static final char DIT = '.';
+  private static final char DAH = '-';
+  private static final int ROOT = 1;
+  private static final int MAX_DEPTH = 5;
+
+  // Instance Variables
+  private final int[] ordinal_at_node = new int[1 << (MAX_DEPTH + 1)];
+
+  // Constructor
+  public MorseCodeTree(CodeTable morse_code) {
+  // -----------------------------------------------------------
+  // Constructs the dit/dah tree of the codes in morse_code. The
+  // tree is stored as an array heap: the root is node 1, and
+  // the dit and dah children of node n are nodes 2n and 2n+1.
+  // -----------------------------------------------------------
+    for(int i = 0; i < ordinal_at_node.length; i++)
+      ordinal_at_node[i] = NOT_FOUND;
+
+    for(int i = 0; i < morse_code.size(); i++)
+      addCode(morse_code.getCode(i), i);
+  }
+
+  public int getOrdinal(String code) {
+  // -----------------------------------------------------------
+  // Returns ordinal value of the letter encoded by code, or
+  // NOT_FOUND if code is not a valid Morse-encoded letter.
+  // Validation and lookup are done in a single walk of code.
+  // -----------------------------------------------------------
+    int node = walk(code);
+
+    if(node == NOT_FOUND)
+      return NOT_FOUND;
+
+    return ordinal_at_node[node];
+  }
+
+  public int getOrdinal(byte[] code, int start, int length) {
+  // -----------------------------------------------------------
+  // Returns ordinal value of the letter encoded by the ASCII
+  // bytes code[start..start+length-1], or NOT_FOUND if they are
+  // not a valid Morse-encoded letter.
+  // -----------------------------------------------------------
+    int node = ROOT;
+
+    for(int i = start; i < start + length; i++) {
+      byte element = code[i];
+
+      if(element == DIT)
+        node = 2 * node;
+      else
+        if(element == DAH)
+          node = 2 * node + 1;
+        else
+          return NOT_FOUND;
+
+      if(node >= ordinal_at_node.length)
+        return NOT_FOUND;
+    }
+    return ordinal_at_node[node];
+  }
+
+  // Private Methods
+
+  private void addCode(String code, int ordinal_value) {
+  // -----------------------------------------------------------
+  // Stores ordinal_value at the node reached by walking code.
+  // Throws IllegalArgumentException if code is empty, longer
+  // than MAX_DEPTH or contains chars other than '.' and '-'.
+  // -----------------------------------------------------------
+    int node = walk(code);
+
+    if(node == ROOT || node == NOT_FOUND)
+      throw new IllegalArgumentException(code);
+
+    ordinal_at_node[node] = ordinal_value;
+  }
+
+  private int walk(String code) {
+  // -----------------------------------------------------------
+  // Returns the node reached by following the dits and dahs of
+  // code from the root, or NOT_FOUND if code leaves the tree.
+  // -----------------------------------------------------------
+    int node = ROOT;
+
+    for(int i = 0; i < code.length(); i++) {
+      char element = code.charAt(i);
+
+      if(element == DIT)
+        node = 2 * node;
+      else
+        if(element == DAH)
+          node = 2 * node + 1;
+        else
+          return NOT_FOUND;
+
+      if(node >= ordinal_at_node.length)
+        return NOT_FOUND;
+    }
+    return node;
+  }
+}
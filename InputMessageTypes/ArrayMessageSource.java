@@ -0,0 +1,76 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.io.IOException;
+
+public class ArrayMessageSource extends MessageSource {
+  // -----------------------------------------------------------
+  // MessageSource over a message already in memory, as bytes
+  // start..end-1 of a byte array. The source can be pointed at
+  // another message (setMessage) and rewound, so a single
+  // source can be reused for any number of short messages.
+  // -----------------------------------------------------------
+
+  // Instance Variables
+  private byte[] message;
+  private int start;
+  private int end;
+  private int position;
+
+  // Constructors
+  public ArrayMessageSource(byte[] message) {
+    this(message, 0, message.length);
+  }
+
+  public ArrayMessageSource(byte[] message, int start, int end) {
+    setMessage(message, start, end);
+  }
+
+  public void setMessage(byte[] message, int start, int end) {
+  // -----------------------------------------------------------
+  // Makes bytes start..end-1 of message the message supplied,
+  // positioned at its first line. (The array is not copied.)
+  // -----------------------------------------------------------
+    this.message = message;
+    this.start = start;
+    this.end = end;
+    position = start;
+  }
+
+  public boolean nextLine() throws IOException {
+  // -----------------------------------------------------------
+  // Copies next line of the message into the line buffer.
+  // Returns false at end of message.
+  // -----------------------------------------------------------
+    clearLine();
+
+    if(position >= end)
+      return false;
+
+    // Find end of line
+    int line_end = position;
+    while(line_end < end && message[line_end] != '\n' &&
+          message[line_end] != '\r')
+      line_end = line_end + 1;
+
+    appendToLine(message, position, line_end - position);
+
+    // Skip line terminator ('\n', '\r' or "\r\n")
+    position = line_end + 1;
+    if(line_end + 1 < end && message[line_end] == '\r' &&
+       message[line_end + 1] == '\n')
+      position = position + 1;
+
+    return true;
+  }
+
+  public void rewind() {
+  // -----------------------------------------------------------
+  // Positions the source back at the start of the message.
+  // -----------------------------------------------------------
+    position = start;
+  }
+
+  public void close() {
+  }
+}
@@ -0,0 +1,111 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.nio.charset.StandardCharsets;
+
+public class ErrorReport {
+  // -----------------------------------------------------------
+  // Invalid symbols skipped while reading a message leniently
+  // (see InputMessage.setErrorReport). The line, column and
+  // text of the first capacity errors are kept; the others are
+  // only counted, so a message full of errors is reported in
+  // bounded memory. Recording an error builds no exception (nor
+  // stack trace), so skipping costs little more than reading.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  public static final int DEFAULT_CAPACITY = 100;
+  private static final int MAX_TEXT_LENGTH = 32;
+
+  // Instance Variables
+  private long[] lines;
+  private int[] columns;
+  private String[] texts;
+  private int size = 0;
+  private long error_count = 0;
+
+  // Constructors
+  public ErrorReport() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public ErrorReport(int capacity) {
+    lines = new long[capacity];
+    columns = new int[capacity];
+    texts = new String[capacity];
+  }
+
+  // Recording Methods
+
+  public void record(long line, int column, byte[] line_bytes,
+                     int start, int end) {
+  // -----------------------------------------------------------
+  // Records invalid symbol line_bytes[start..end-1], found at
+  // line and column (both counted from 1). Its text is cut to
+  // MAX_TEXT_LENGTH chars.
+  // -----------------------------------------------------------
+    error_count = error_count + 1;
+
+    if(size == lines.length)
+      return;
+
+    lines[size] = line;
+    columns[size] = column;
+    texts[size] = new String(line_bytes, start,
+                             Math.min(end - start, MAX_TEXT_LENGTH),
+                             StandardCharsets.US_ASCII);
+    size = size + 1;
+  }
+
+  public void clear() {
+    size = 0;
+    error_count = 0;
+  }
+
+  // Report Methods
+
+  public long getErrorCount() {
+  // -----------------------------------------------------------
+  // Returns number of errors recorded (kept or not).
+  // -----------------------------------------------------------
+    return error_count;
+  }
+
+  public int size() {
+  // -----------------------------------------------------------
+  // Returns number of errors kept (at most capacity).
+  // -----------------------------------------------------------
+    return size;
+  }
+
+  public long getLine(int n) {
+    return lines[n];
+  }
+
+  public int getColumn(int n) {
+    return columns[n];
+  }
+
+  public String getText(int n) {
+    return texts[n];
+  }
+
+  public String toString() {
+  // -----------------------------------------------------------
+  // Returns one line per error kept (e.g. "line 3, column 7:
+  // q"), followed by the number of errors not kept (if any).
+  // -----------------------------------------------------------
+    StringBuilder report = new StringBuilder();
+
+    for(int n = 0; n < size; n++)
+      report.append("line ").append(lines[n])
+            .append(", column ").append(columns[n])
+            .append(": ").append(texts[n]).append('\n');
+
+    if(error_count > size)
+      report.append("(").append(error_count - size)
+            .append(" more not listed)\n");
+
+    return report.toString();
+  }
+}
@@ -0,0 +1,187 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class FollowMessageSource extends MessageSource {
+  // -----------------------------------------------------------
+  // MessageSource over a file that is still being appended to
+  // (such as a capture log). Only complete lines (ending in a
+  // line terminator) are read: at the end of the complete
+  // lines, nextLine returns false but leaves the position at
+  // the start of the unfinished line, so once more has been
+  // appended, nextLine carries on from there.
+  //
+  // The position (and whether a '\n' following a '\r' is still
+  // to be skipped) may be saved and passed back to the
+  // constructor, to resume reading after a restart.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final int BLOCK_SIZE = 64 * 1024;
+  private static final int NO_DATA = -1;
+
+  // Instance Variables
+  private FileChannel channel;
+  private byte[] block = new byte[BLOCK_SIZE];
+  private long block_start;       // file position of block[0]
+  private int block_length = 0;
+  private long position;
+  private boolean skip_line_feed;
+
+  // Constructors
+  public FollowMessageSource(String file_name) throws
+                            FileNotFoundException, IOException {
+    this(file_name, 0, false);
+  }
+
+  public FollowMessageSource(String file_name, long position,
+                             boolean skip_line_feed) throws
+                            FileNotFoundException, IOException {
+  // -----------------------------------------------------------
+  // Opens file_name to read the lines from file position
+  // position on (a position returned by getPosition, with the
+  // value isSkippingLineFeed had then).
+  // Throws FileNotFoundException if file not found.
+  // -----------------------------------------------------------
+    this.channel = new RandomAccessFile(file_name, "r").getChannel();
+    this.position = position;
+    this.skip_line_feed = skip_line_feed;
+    block_start = position;
+  }
+
+  public boolean nextLine() throws IOException {
+  // -----------------------------------------------------------
+  // Reads next complete line of the file into the line buffer.
+  // Returns false if no complete line has been appended yet.
+  // -----------------------------------------------------------
+    clearLine();
+
+    // Skip '\n' of a "\r\n" line terminator (once it is known
+    // whether the '\r' is followed by one)
+    if(skip_line_feed) {
+      int chr = byteAt(position);
+
+      if(chr == NO_DATA)
+        return false;
+
+      skip_line_feed = false;
+      if(chr == '\n')
+        position = position + 1;
+    }
+
+    // Find end of line (waiting for the rest of an unfinished
+    // line)
+    long scan = position;
+    int chr = byteAt(scan);
+
+    while(chr != '\n' && chr != '\r') {
+      if(chr == NO_DATA)
+        return false;
+
+      scan = scan + 1;
+      chr = byteAt(scan);
+    }
+
+    // Copy line into line buffer
+    int length = (int) (scan - position);
+    byte[] line = reserveLine(length);
+    System.arraycopy(block, (int) (position - block_start),
+                     line, 0, length);
+
+    skip_line_feed = (chr == '\r');
+    position = scan + 1;
+
+    return true;
+  }
+
+  public void rewind() throws IOException {
+  // -----------------------------------------------------------
+  // Positions source back at the start of the file (e.g. after
+  // the file was truncated and is being written afresh).
+  // -----------------------------------------------------------
+    position = 0;
+    skip_line_feed = false;
+    block_start = 0;
+    block_length = 0;
+  }
+
+  public long getPosition() {
+  // -----------------------------------------------------------
+  // Returns file position of the next line to be read (the
+  // end of the complete lines read so far).
+  // -----------------------------------------------------------
+    return position;
+  }
+
+  public boolean isSkippingLineFeed() {
+  // -----------------------------------------------------------
+  // Returns true if the last line read ended in a '\r' whose
+  // following char has not been appended yet (so a '\n' there
+  // is to be skipped).
+  // -----------------------------------------------------------
+    return skip_line_feed;
+  }
+
+  public boolean isTruncated() throws IOException {
+  // -----------------------------------------------------------
+  // Returns true if the file is now shorter than the lines
+  // already read (it was truncated or replaced).
+  // -----------------------------------------------------------
+    return channel.size() < position;
+  }
+
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  // Private Methods
+
+  private int byteAt(long file_position) throws IOException {
+  // -----------------------------------------------------------
+  // Returns byte at file_position (at or after position), or
+  // NO_DATA if not appended yet. Reads the bytes that follow
+  // into the block when needed, keeping the bytes from
+  // position on (the line being read), growing the block if
+  // the line fills it.
+  // -----------------------------------------------------------
+    if(file_position >= block_start + block_length) {
+
+      // Move line being read to start of block
+      int kept = (int) (block_start + block_length - position);
+
+      if(kept > 0)
+        System.arraycopy(block, (int) (position - block_start),
+                         block, 0, kept);
+      else
+        kept = 0;
+
+      block_start = position;
+      block_length = kept;
+
+      if(block_length == block.length) {
+        byte[] bigger = new byte[2 * block.length];
+        System.arraycopy(block, 0, bigger, 0, block_length);
+        block = bigger;
+      }
+
+      // Read bytes appended since
+      long start = System.nanoTime();
+      int length = channel.read(ByteBuffer.wrap(block, block_length,
+                                         block.length - block_length),
+                                block_start + block_length);
+      recordRead(start);
+
+      if(length <= 0)
+        return NO_DATA;
+
+      block_length = block_length + length;
+    }
+
+    return block[(int) (file_position - block_start)] & 0xFF;
+  }
+}
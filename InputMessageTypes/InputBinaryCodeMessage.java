@@ -3,30 +3,43 @@ package InputMessageTypes;
 // Import Java API Classes
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 
 // Import Project Classes
+import CodeTables.BinaryCodeIndex;
+import CodeTables.CodeTableRegistry;
 import Exceptions.InvalidBinaryCodeFoundException;
 
 public class InputBinaryCodeMessage extends InputMessage{
     // Symbolic Constants
     private final String EOL = "\n";
-    private final String empty_line = "";
+    private final int CODE_LENGTH = BinaryCodeIndex.CODE_LENGTH;
 
     // Instance Variables
-    private String[][] binary_code = new String[26][2];
-    private String binary_code_filename = "Data/BinaryCode_Table.txt";
-    private String line_read = null;
-    private String line_buffer;
-    private int current_bit_index;
-    private String last_bit_read;
-    private boolean first_line_read = false;
+    private BinaryCodeIndex binary_code;
+    private byte[] line_buffer;
+    private int line_length = 0;
+    private int current_bit_index = 1;
+    private int[] line_ordinals = new int[32];  // decoded codes of line
+    private int decoded_start = 0;     // bit of line_ordinals[0]
+    private int decoded_length = 0;    // bits of line decoded
+    private int last_symbol;
 
     public InputBinaryCodeMessage(BufferedReader input) throws 
                                         FileNotFoundException, IOException {
         super(input);
-        populateBinaryCode(binary_code_filename);
+        binary_code = CodeTableRegistry.getBinaryCodeIndex();
+    }
+
+    public InputBinaryCodeMessage(InputStream input) throws IOException {
+        super(input);
+        binary_code = CodeTableRegistry.getBinaryCodeIndex();
+    }
+
+    public InputBinaryCodeMessage(MessageSource input) throws IOException {
+        super(input);
+        binary_code = CodeTableRegistry.getBinaryCodeIndex();
     }
 
     // Character-Ordinal Conversion Methods
@@ -34,105 +47,150 @@ public class InputBinaryCodeMessage extends InputMessage{
     public int getOrdinal(String chr) {
     // -----------------------------------------------------------
     // Returns ordinal value (position) of chr in the encoding.
+    // The 8-bit code chr is used directly as a table index.
     // -----------------------------------------------------------
-      int i = 0;
-      int ordinal_value = 0;
-      boolean found = false;
-  
-      while(i < binary_code.length && !found) {
-        if(binary_code[i][1].equals(chr)) {
-          ordinal_value = i;
-          found = true;
-        }
-        else
-          i = i + 1;
-      }
-      return ordinal_value;
+      int ordinal_value = binary_code.getOrdinal(chr);
+
+      if(ordinal_value == BinaryCodeIndex.NOT_FOUND)
+        return 0;
+      else
+        return ordinal_value;
+    }
+
+    public int getCurrentOrdinal() {
+    // -----------------------------------------------------------
+    // Returns ordinal value of the letter last read.
+    // -----------------------------------------------------------
+      return last_symbol;
     }
   
     // Input Reading Methods
   
-    public String readLetter() throws IOException, 
+    public void rewind() throws IOException {
+    // -----------------------------------------------------------
+    // Positions message back at its start (before its first
+    // line).
+    // -----------------------------------------------------------
+      super.rewind();
+      line_length = 0;
+      current_bit_index = 1;
+    }
+
+    public int readSymbol() throws IOException, 
                                   InvalidBinaryCodeFoundException {
     // -----------------------------------------------------------
-    // Retrieves next letter from current line read.
-    // Returns null if line_read equals null (end-of-file).
-    // Returns EOL if line_read is empty string (blank line).
-    // Reads next line of file if at last char of current line.
+    // Retrieves next letter (group of 8 bits) from current line
+    // read and returns its ordinal value. Returns END_OF_LINE
+    // after the last group of the line (or for a blank line),
+    // and END_OF_MESSAGE at end-of-file.
+    // Reads next line of file if at end of current line.
     //
     // Throws IOException if current input message file not open.
     // Throws InvalidBinaryCodeFoundException if bits and not in
-    // groups of 8, or a bit is not either 0 or 1.
+    // groups of 8, or a bit is not either 0 or 1 (unless reading
+    // leniently).
     // -----------------------------------------------------------
-      
-      // If no lines read yet, read first line
-      if(!first_line_read) {
-  
-        // Read first line of file
-        line_read = getNextLine();
-  
-        // Mark end of line buffer with '*'
-        line_buffer = line_read + "*";
-  
-        // Set current char as first char of line buffer
-        current_bit_index = 0;
-  
-        // Indicate that first line of file read
-        first_line_read = true;
-      }
-  
-      // At end-of-line?
-      if(endOfLine()) {
-  
+
+      // At end-of-line? (END_OF_LINE already returned)
+      if(current_bit_index > line_length) {
+
         // Read next line of file
-        line_read = getNextLine();
-  
-        // Make end of line buffer with '*'
-        line_buffer = line_read + "*";
-  
+        if(!readNextLine()) {
+          last_symbol = END_OF_MESSAGE;
+          return last_symbol;
+        }
+
+        line_buffer = getLineBytes();
+        line_length = getLineLength();
+
+        // Decode (and validate) every group of the line at once,
+        // up to any invalid group
+        if(line_length / CODE_LENGTH > line_ordinals.length)
+          line_ordinals = new int[Math.max(line_length / CODE_LENGTH,
+                                           2 * line_ordinals.length)];
+
+        decoded_start = 0;
+        decoded_length = CODE_LENGTH * binary_code.decode(line_buffer, 0,
+                                          line_length, line_ordinals);
+
         // Set current bit as first bit of line buffer
         current_bit_index = 0;
       }
-  
-      // At end-of-file?
-      if(line_read == null)
-        return null;
-  
-      // If empty line read, then return EOL string
-      if(line_read.equals(empty_line))
-        return EOL;
-    
-      // Return next bit of current line buffer
-      String bits_read;
-
-      // Check for invalid bit (only 0 or 1 valid)
-      try {
-            bits_read = line_buffer.substring(current_bit_index, Math.min(current_bit_index + 8, line_buffer.length() - 1));
-      } catch (StringIndexOutOfBoundsException e) {
-            // If the substring operation goes out of bounds, it means the binary code is too short
-            throw new InvalidBinaryCodeFoundException(line_buffer);
+
+      // Return END_OF_LINE after last group of line
+      if(current_bit_index == line_length) {
+        current_bit_index = current_bit_index + 1;
+        last_symbol = END_OF_LINE;
+        return last_symbol;
+      }
+
+      // Reached first invalid group of line? (thrown only once
+      // the groups before it have been read, or skipped if
+      // reading leniently)
+      while(current_bit_index >= decoded_length) {
+
+        // Bits not in a group of 8, or invalid bit (only 0 or 1
+        // valid)
+        int group_end = Math.min(current_bit_index + CODE_LENGTH,
+                                 line_length);
+
+        if(!skipInvalid(current_bit_index, group_end))
+          throw new InvalidBinaryCodeFoundException(
+                  getLineText(current_bit_index, group_end));
+
+        current_bit_index = group_end;
+
+        // Skipped last group of line?
+        if(current_bit_index == line_length) {
+          current_bit_index = current_bit_index + 1;
+          last_symbol = END_OF_LINE;
+          return last_symbol;
+        }
+
+        // Decode the groups that follow
+        decoded_start = current_bit_index;
+        decoded_length = decoded_start + CODE_LENGTH * 
+              binary_code.decode(line_buffer, decoded_start,
+                                 line_length - decoded_start,
+                                 line_ordinals);
+      }
+
+      last_symbol = line_ordinals[(current_bit_index - decoded_start) /
+                                  CODE_LENGTH];
+
+      if(last_symbol == BinaryCodeIndex.NOT_FOUND)
+        last_symbol = 0;
+
+      // Increment to next group of bits in current line buffer
+      current_bit_index += CODE_LENGTH;
+
+      return last_symbol;
     }
-  
-      // Save current bit read
-      last_bit_read = bits_read;
-  
-      // Check for invalid bit (only A-Z, 0-9 valid)
-      if(invalidBinaryCode(bits_read))
-        throw new InvalidBinaryCodeFoundException(bits_read);
-      
-      // Increment to next bit in current line buffer
-      current_bit_index+= 8;
-  
-      return bits_read;
+
+    public String readLetter() throws IOException, 
+                                  InvalidBinaryCodeFoundException {
+    // -----------------------------------------------------------
+    // Retrieves next letter (8 bits) from current line read.
+    // Returns null at end-of-file and EOL at end-of-line.
+    // -----------------------------------------------------------
+      int symbol = readSymbol();
+
+      if(symbol == END_OF_MESSAGE)
+        return null;
+      else
+        if(symbol == END_OF_LINE)
+          return EOL;
+        else
+          return getLineText(current_bit_index - CODE_LENGTH,
+                             current_bit_index);
     }
     
     public boolean endOfWord() {
     // -----------------------------------------------------------
-    // Returns true if last bit read a blank bit
+    // Returns true if last symbol read an end-of-word
     // otherwise, returns false.
     // -----------------------------------------------------------
-      final char blank_char = ' ';
-      return last_bit_read.charAt(0) == blank_char;
+      return last_symbol == END_OF_WORD;
     }
     
     public boolean endOfLine() {
@@ -140,65 +198,6 @@ public class InputBinaryCodeMessage extends InputMessage{
     // Returns true if last bit in line buffer read
     // otherwise, returns false.
     // -----------------------------------------------------------
-      return current_bit_index >= line_buffer.length();
-    }
-  
-    // Private Methods
-  
-    private void populateBinaryCode(String file_name) throws
-                            FileNotFoundException, IOException {
-    // -----------------------------------------------------------
-    // Populates array binary_code with the Morse code for the
-    // upper-case letters read from the text file indicated in
-    // binary_code_filename.
-    // -----------------------------------------------------------
-        String line;
-
-        // Open Binary code file
-        BufferedReader input_file = 
-        new BufferedReader(new FileReader(file_name));
-        
-        // Read first line
-        line = input_file.readLine();
-        int i = 0;
-
-        // Continue reading lines until end of file
-        while(line != null) {
-
-            // Read letter part of Binary code file
-            binary_code[i][0] = line.substring(0,1);
-
-            // Read corresponding Binary code of letter
-            binary_code[i][1] = line.substring(1, line.length());
-
-            // Read next line of file
-            line = input_file.readLine();
-            i = i + 1;
-    }
-
-    // Close file
-    input_file.close();
-  }
-
-    private boolean invalidBinaryCode(String bits) {
-    // -----------------------------------------------------------
-    // Returns true if bits are not in groups of 8, and bits are
-    // not either 0 or 1
-    // -----------------------------------------------------------
-        
-        // Returns true is bits are not in groups of 8
-        if (bits.length() % 8 != 0)
-            return true;
-
-        // Returns true if a bit is not a 0 or 1
-        for (int i = 0; i < bits.length(); i++) {
-            char bit = bits.charAt(i);
-            if (bit != '0' && bit != '1') {
-                return true;
-            }
-        }
-        
-        // If all conditions are satisfied, binary code is valid
-        return false;
+      return last_symbol == END_OF_LINE;
     }
 }
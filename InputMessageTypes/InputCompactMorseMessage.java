@@ -0,0 +1,198 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Import Project Classes
+import CodeTables.CodeTableRegistry;
+import CodeTables.MorseCodeTree;
+import Exceptions.InvalidCharFoundException;
+
+public class InputCompactMorseMessage extends InputMessage {
+  // -----------------------------------------------------------
+  // Reads a compact Morse message (see OutputCompactMorseMessage):
+  // each line is a sentence, whose letters are separated by
+  // blanks and whose words are separated by a '/' (blanks
+  // around the '/' are allowed). Each line is tokenized in
+  // place in the line buffer, and each code is resolved in a
+  // walk of the Morse code tree, so reading allocates nothing
+  // per letter.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private final String EOL = "\n";
+  private final String WORD_SEPARATOR = "/";
+
+  // Instance Variables
+  private MorseCodeTree morse_code;
+  private byte[] line_buffer;
+  private int line_length = 0;
+  private int current_char_index = 1;
+  private int letter_start;   // position of the letter last read
+  private int last_symbol;
+
+  public InputCompactMorseMessage(BufferedReader input) throws
+                            FileNotFoundException, IOException {
+    super(input);
+    morse_code = CodeTableRegistry.getMorseCodeTree();
+  }
+
+  public InputCompactMorseMessage(InputStream input) throws
+                                                IOException {
+    super(input);
+    morse_code = CodeTableRegistry.getMorseCodeTree();
+  }
+
+  public InputCompactMorseMessage(MessageSource input) throws
+                                                IOException {
+    super(input);
+    morse_code = CodeTableRegistry.getMorseCodeTree();
+  }
+
+  // Character-Ordinal Conversion Methods
+
+  public int getOrdinal(String chr) {
+  // -----------------------------------------------------------
+  // Returns ordinal value (position) of chr in the encoding.
+  // -----------------------------------------------------------
+    int ordinal_value = morse_code.getOrdinal(chr);
+
+    if(ordinal_value == MorseCodeTree.NOT_FOUND)
+      return 0;
+    else
+      return ordinal_value;
+  }
+
+  public int getCurrentOrdinal() {
+  // -----------------------------------------------------------
+  // Returns ordinal value of the letter last read.
+  // -----------------------------------------------------------
+    return last_symbol;
+  }
+
+  // Input Reading Methods
+
+  public void rewind() throws IOException {
+  // -----------------------------------------------------------
+  // Positions message back at its start (before its first
+  // line).
+  // -----------------------------------------------------------
+    super.rewind();
+    line_length = 0;
+    current_char_index = 1;
+  }
+
+  public int readSymbol() throws IOException,
+                                 InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Retrieves next symbol from current line read: the ordinal
+  // value of a letter, END_OF_WORD for a '/', and END_OF_LINE
+  // after the last letter of the line (or for a blank line).
+  // Returns END_OF_MESSAGE at end-of-file.
+  // Reads next line of file if at end of current line.
+  //
+  // Throws InvalidCharFoundException if a letter is not valid
+  // Morse code (unless reading leniently).
+  // -----------------------------------------------------------
+
+    // At end-of-line? (END_OF_LINE already returned)
+    if(current_char_index > line_length) {
+
+      // Read next line of file
+      if(!readNextLine()) {
+        last_symbol = END_OF_MESSAGE;
+        return last_symbol;
+      }
+
+      line_buffer = getLineBytes();
+      line_length = getLineLength();
+
+      // Set current char as first char of line buffer
+      current_char_index = 0;
+    }
+
+    // Read next letter (skipping letters of invalid Morse code
+    // if reading leniently)
+    while(true) {
+
+      // Skip blanks between letters
+      while(current_char_index < line_length &&
+            line_buffer[current_char_index] == ' ')
+        current_char_index = current_char_index + 1;
+
+      // Return END_OF_LINE after last letter of line
+      if(current_char_index == line_length) {
+        current_char_index = current_char_index + 1;
+        last_symbol = END_OF_LINE;
+        return last_symbol;
+      }
+
+      // Word separator?
+      if(line_buffer[current_char_index] == '/') {
+        current_char_index = current_char_index + 1;
+        last_symbol = END_OF_WORD;
+        return last_symbol;
+      }
+
+      // Find end of letter (next blank, '/' or end of line)
+      letter_start = current_char_index;
+
+      while(current_char_index < line_length &&
+            line_buffer[current_char_index] != ' ' &&
+            line_buffer[current_char_index] != '/')
+        current_char_index = current_char_index + 1;
+
+      // Check for invalid Morse code found (resolving its
+      // ordinal value in the same walk of the code tree)
+      last_symbol = morse_code.getOrdinal(line_buffer, letter_start,
+                                          current_char_index - letter_start);
+
+      if(last_symbol != MorseCodeTree.NOT_FOUND)
+        return last_symbol;
+
+      if(!skipInvalid(letter_start, current_char_index))
+        throw new InvalidCharFoundException(
+                      getLineText(letter_start, current_char_index));
+    }
+  }
+
+  public String readLetter() throws IOException,
+                                 InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Retrieves next Morse-encoded letter from current line read.
+  // Returns null at end-of-file, EOL at end-of-line and "/" at
+  // end-of-word.
+  // -----------------------------------------------------------
+    int symbol = readSymbol();
+
+    if(symbol == END_OF_MESSAGE)
+      return null;
+    else
+      if(symbol == END_OF_LINE)
+        return EOL;
+      else
+        if(symbol == END_OF_WORD)
+          return WORD_SEPARATOR;
+        else
+          return getLineText(letter_start, current_char_index);
+  }
+
+  public boolean endOfWord() {
+  // -----------------------------------------------------------
+  // Returns true if last symbol read a '/'
+  // otherwise, returns false.
+  // -----------------------------------------------------------
+    return last_symbol == END_OF_WORD;
+  }
+
+  public boolean endOfLine() {
+  // -----------------------------------------------------------
+  // Returns true if last letter in line buffer read
+  // otherwise, returns false.
+  // -----------------------------------------------------------
+    return last_symbol == END_OF_LINE;
+  }
+}
@@ -5,147 +5,190 @@ package InputMessageTypes;
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 
 // Import Project Classes
 import Exceptions.InvalidCharFoundException;
 
 public class InputEnglishMessage extends InputMessage {
-  
+
   // Symbolic Constants
   private final String EOL = "\n";
-  private final String empty_line = "";
-  private final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-  
+  private final String BLANK = " ";
+  private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  private static final int INVALID_CHAR = -4;
+  private static final int[] SYMBOL_OF_BYTE = new int[256];
+  private static final String[] LETTERS = new String[ALPHABET.length()];
+
+  static {
+    // Classify every byte value: letters map to their ordinal
+    // value, a blank to END_OF_WORD, anything else (including
+    // every non-ASCII byte) is invalid. With an entry for each
+    // of the 256 byte values, a lookup needs no range check.
+    for(int i = 0; i < SYMBOL_OF_BYTE.length; i++)
+      SYMBOL_OF_BYTE[i] = INVALID_CHAR;
+
+    for(int i = 0; i < ALPHABET.length(); i++) {
+      SYMBOL_OF_BYTE[ALPHABET.charAt(i)] = i;
+      LETTERS[i] = ALPHABET.substring(i, i + 1);
+    }
+
+    SYMBOL_OF_BYTE[' '] = END_OF_WORD;
+  }
+
   // Instance Variables
-  private String line_read = null;
-  private String line_buffer;
-  private int current_char_index;
-  private String last_char_read;
-  private boolean first_line_read = false;
+  private byte[] line_buffer;
+  private int line_length = 0;
+  private int current_char_index = 1;
+  private int last_symbol;
 
-  public InputEnglishMessage(BufferedReader input) throws 
+  public InputEnglishMessage(BufferedReader input) throws
                                       FileNotFoundException {
     super(input);
   }
 
+  public InputEnglishMessage(InputStream input) {
+    super(input);
+  }
+
+  public InputEnglishMessage(MessageSource input) {
+    super(input);
+  }
+
   // Character-Ordinal Conversion Methods
 
   public int getOrdinal(String chr) {
   // -----------------------------------------------------------
   // Returns ordinal value (position) of chr in the encoding.
   // -----------------------------------------------------------
-    int i = 0;
-    int ordinal_value = 0;
-    boolean found = false;
-
-    while(i < ALPHABET.length() && !found) {
-      if(ALPHABET.charAt(i) == chr.charAt(0)) {
-        ordinal_value = i;
-        found = true;
-      }
-      else
-        i = i + 1;
-    }
-    return ordinal_value;
+    int chr_code = chr.charAt(0);
+
+    if(chr_code < SYMBOL_OF_BYTE.length &&
+       SYMBOL_OF_BYTE[chr_code] >= 0)
+      return SYMBOL_OF_BYTE[chr_code];
+    else
+      return 0;
+  }
+
+  public int getCurrentOrdinal() {
+  // -----------------------------------------------------------
+  // Returns ordinal value of the letter last read.
+  // -----------------------------------------------------------
+    return last_symbol;
   }
 
    // Input Reading Methods
 
-  public String readLetter() throws IOException, 
+  public void rewind() throws IOException {
+  // -----------------------------------------------------------
+  // Positions message back at its start (before its first
+  // line).
+  // -----------------------------------------------------------
+    super.rewind();
+    line_length = 0;
+    current_char_index = 1;
+  }
+
+  public int readSymbol() throws IOException,
                                 InvalidCharFoundException {
   // -----------------------------------------------------------
-  // Retrieves next letter from current line read.
-  // Returns null if line_read equals null (end-of-file).
-  // Returns EOL if line_read is empty string (blank line).
-  // Reads next line of file if at last char of current line.
+  // Retrieves next symbol from current line read: the ordinal
+  // value of a letter, END_OF_WORD for a blank char, and
+  // END_OF_LINE after the last char of the line (or for a
+  // blank line). Returns END_OF_MESSAGE at end-of-file.
+  // Reads next line of file if at end of current line.
   //
   // Throws IOException if current input message file not open.
-  // Throws InvalidCharFoundException if letter other than
-  // A-Z, blank char or \n found.
+  // Throws InvalidCharFoundException if char other than A-Z or
+  // blank char found (unless reading leniently).
   // -----------------------------------------------------------
-    
-    // If no lines read yet, read first line
-    if(!first_line_read) {
 
-      // Read first line of file
-      line_read = getNextLine();
+    // At end-of-line? (END_OF_LINE already returned)
+    if(current_char_index > line_length) {
+
+      // Read next line of file
+      if(!readNextLine()) {
+        last_symbol = END_OF_MESSAGE;
+        return last_symbol;
+      }
 
-      // Mark end of line buffer with '*'
-      line_buffer = line_read + "*";
+      line_buffer = getLineBytes();
+      line_length = getLineLength();
 
       // Set current char as first char of line buffer
       current_char_index = 0;
+    }
 
-      // Indicate that first line of file read
-      first_line_read = true;
+    // Return END_OF_LINE after last char of line
+    if(current_char_index == line_length) {
+      current_char_index = current_char_index + 1;
+      last_symbol = END_OF_LINE;
+      return last_symbol;
     }
 
-    // At end-of-line?
-    if(endOfLine()) {
+    // Look up symbol of next byte of current line buffer
+    int symbol = SYMBOL_OF_BYTE[line_buffer[current_char_index] & 0xFF];
 
-      // Read next line of file
-      line_read = getNextLine();
+    // Check for invalid character (only A-Z and blank valid),
+    // skipping invalid chars if reading leniently
+    while(symbol == INVALID_CHAR) {
+      if(!skipInvalid(current_char_index, current_char_index + 1))
+        throw new InvalidCharFoundException(
+            getLineText(current_char_index, current_char_index + 1));
 
-      // Make end of line buffer with '*'
-      line_buffer = line_read + "*";
+      current_char_index = current_char_index + 1;
 
-      // Set current char as first char of line buffer
-      current_char_index = 0;
-    }
+      // Skipped last char of line?
+      if(current_char_index == line_length) {
+        current_char_index = current_char_index + 1;
+        last_symbol = END_OF_LINE;
+        return last_symbol;
+      }
 
-    // At end-of-file?
-    if(line_read == null)
-      return null;
+      symbol = SYMBOL_OF_BYTE[line_buffer[current_char_index] & 0xFF];
+    }
 
-    // If empty line read, then return EOL string
-    if(line_read.equals(empty_line))
-      return EOL;
-  
-    // Return next letter of current line buffer
-    String char_read = 
-        line_buffer.substring(current_char_index,
-                            current_char_index + 1);
-
-    // Save current char read
-    last_char_read = char_read;
-
-    // Check for invalid character (only A-Z, 0-9 valid)
-    if(invalidChar(char_read))
-      throw new InvalidCharFoundException(char_read);
-    
     // Increment to next char in current line buffer
     current_char_index = current_char_index + 1;
 
-    return char_read;
+    last_symbol = symbol;
+    return last_symbol;
+  }
+
+  public String readLetter() throws IOException,
+                                InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Retrieves next letter from current line read.
+  // Returns null at end-of-file, EOL at end-of-line and a blank
+  // at end-of-word.
+  // -----------------------------------------------------------
+    int symbol = readSymbol();
+
+    if(symbol == END_OF_MESSAGE)
+      return null;
+    else
+      if(symbol == END_OF_LINE)
+        return EOL;
+      else
+        if(symbol == END_OF_WORD)
+          return BLANK;
+        else
+          return LETTERS[symbol];
   }
-  
+
   public boolean endOfWord() {
   // -----------------------------------------------------------
   // Returns true if last char read a blank char
   // otherwise, returns false.
   // -----------------------------------------------------------
-    final char blank_char = ' ';
-    return last_char_read.charAt(0) == blank_char;
+    return last_symbol == END_OF_WORD;
   }
-  
+
   public boolean endOfLine() {
   // -----------------------------------------------------------
   // Returns true if last char in line buffer read
   // otherwise, returns false.
   // -----------------------------------------------------------
-    return current_char_index >= line_buffer.length();
-  }
-
-  // Private Methods
-
-  private boolean invalidChar(String chr_str) {
-  // -----------------------------------------------------------
-  // Returns true if ch_str not A-Z, 0-9, a blank, '\n' or '*'.
-  // -----------------------------------------------------------
-    final char blank_char = ' ';
-    char chr = chr_str.charAt(0);
-
-    return !((int)(chr) >= (int)('A') && (int)(chr) <= (int)('Z') ||
-             chr == blank_char || chr == '\n' || chr == '*');
+    return last_symbol == END_OF_LINE;
   }
 }
\ No newline at end of file
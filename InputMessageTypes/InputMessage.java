@@ -3,12 +3,31 @@ package InputMessageTypes;
 // Import Java API Classes
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 
 public abstract class InputMessage {
-  private BufferedReader input;
+
+  // Symbol Codes (returned by readSymbol, letters are returned
+  // as their ordinal values 0, 1, 2, ...)
+  public static final int END_OF_WORD = -1;
+  public static final int END_OF_LINE = -2;
+  public static final int END_OF_MESSAGE = -3;
+
+  private MessageSource input;
   private boolean EOF = false;  // end of file flag
+  private long chars_read = 0;  // line ends counted as one char
+  private long line_number = 0; // of the current line
+  private ErrorReport error_report;  // lenient reading if not null
 
   public InputMessage(BufferedReader input) {
+    this(new ReaderMessageSource(input));
+  }
+
+  public InputMessage(InputStream input) {
+    this(new StreamMessageSource(input));
+  }
+
+  public InputMessage(MessageSource input) {
     this.input = input;
   }
 
@@ -17,14 +36,10 @@ public abstract class InputMessage {
   // Reads and returns next line of input file.
   // If end-of-file found, sets EOF to true and returns null.
   // -----------------------------------------------------------
-    String line = input.readLine();
-
-    // End of file?
-    if(line == null) {
-      EOF = true;
-    }
+    if(!readNextLine())
+      return null;
 
-    return line;
+    return input.getLineText(0, input.getLineLength());
   }
 
   public boolean endOfMessage() {
@@ -34,6 +49,73 @@ public abstract class InputMessage {
     return EOF;
   }
 
+  public long getCharsRead() {
+  // -----------------------------------------------------------
+  // Returns number of message chars read so far (counting each
+  // line end as one char), over all rewinds.
+  // -----------------------------------------------------------
+    return chars_read;
+  }
+
+  public long getReadNanos() {
+  // -----------------------------------------------------------
+  // Returns time spent reading the input file so far, in
+  // nanoseconds.
+  // -----------------------------------------------------------
+    return input.getReadNanos();
+  }
+
+  public void rewind() throws IOException {
+  // -----------------------------------------------------------
+  // Positions message back at its start, so it can be read
+  // again (subclasses also reset their reading state).
+  // Throws IOException if the message source cannot be rewound.
+  // -----------------------------------------------------------
+    input.rewind();
+    EOF = false;
+    line_number = 0;
+  }
+
+  public void setErrorReport(ErrorReport error_report) {
+  // -----------------------------------------------------------
+  // Makes reading lenient: an invalid symbol (an English char,
+  // a Morse code or a Binary code) is skipped rather than
+  // thrown, and recorded in error_report with its line and
+  // column. null makes reading strict again (the default).
+  // -----------------------------------------------------------
+    this.error_report = error_report;
+  }
+
+  public ErrorReport getErrorReport() {
+    return error_report;
+  }
+
+  public long getLineNumber() {
+  // -----------------------------------------------------------
+  // Returns number of the current line (counted from 1 since
+  // the message was opened or last rewound; 0 before the
+  // first line is read).
+  // -----------------------------------------------------------
+    return line_number;
+  }
+
+  public int getDecoderState() {
+  // -----------------------------------------------------------
+  // Returns the reading state carried from one line of the
+  // message to the next (0 if none), so that reading can be
+  // resumed at a line start by a new message of the same type
+  // (see setDecoderState).
+  // -----------------------------------------------------------
+    return 0;
+  }
+
+  public void setDecoderState(int state) {
+  // -----------------------------------------------------------
+  // Restores reading state returned by getDecoderState (before
+  // the first symbol is read).
+  // -----------------------------------------------------------
+  }
+
   public void close() throws IOException {
   // -----------------------------------------------------------
   // Closes current file.
@@ -42,6 +124,60 @@ public abstract class InputMessage {
     input.close();
   }
 
+  // Protected Methods
+
+  protected boolean readNextLine() throws IOException {
+  // -----------------------------------------------------------
+  // Reads next line of input file into the (reused) line
+  // buffer of the message source. If end-of-file found, sets
+  // EOF to true and returns false.
+  // -----------------------------------------------------------
+    if(!input.nextLine()) {
+      EOF = true;
+      return false;
+    }
+
+    chars_read = chars_read + input.getLineLength() + 1;
+    line_number = line_number + 1;
+    return true;
+  }
+
+  protected boolean skipInvalid(int start, int end) {
+  // -----------------------------------------------------------
+  // Returns true if reading is lenient, having recorded chars
+  // start..end-1 of the current line as an invalid symbol to
+  // skip; otherwise returns false (for the invalid symbol to
+  // be thrown).
+  // -----------------------------------------------------------
+    if(error_report == null)
+      return false;
+
+    error_report.record(line_number, start + 1, input.getLineBytes(),
+                        start, end);
+    return true;
+  }
+
+  protected byte[] getLineBytes() {
+  // -----------------------------------------------------------
+  // Returns buffer holding the current line (as ASCII bytes).
+  // -----------------------------------------------------------
+    return input.getLineBytes();
+  }
+
+  protected int getLineLength() {
+  // -----------------------------------------------------------
+  // Returns number of chars in the current line.
+  // -----------------------------------------------------------
+    return input.getLineLength();
+  }
+
+  protected String getLineText(int start, int end) {
+  // -----------------------------------------------------------
+  // Returns chars start..end-1 of the current line as a String.
+  // -----------------------------------------------------------
+    return input.getLineText(start, end);
+  }
+
   // Abstract Methods
 
   public abstract int getOrdinal(String chr);
@@ -49,9 +185,24 @@ public abstract class InputMessage {
   // Returns ordinal value (position) of chr in the encoding.
   // -----------------------------------------------------------
 
+  public abstract int getCurrentOrdinal();
+  // -----------------------------------------------------------
+  // Returns ordinal value of the letter last read, resolved by
+  // a direct table lookup while it was read (so no per-letter
+  // search is needed).
+  // -----------------------------------------------------------
+
+  public abstract int readSymbol() throws IOException;
+  // -----------------------------------------------------------
+  // Reads and returns next symbol of message: the ordinal value
+  // of a letter, or END_OF_WORD, END_OF_LINE or END_OF_MESSAGE.
+  // Allocates no objects (other than on invalid input).
+  // -----------------------------------------------------------
+
   public abstract String readLetter() throws IOException;
   // -----------------------------------------------------------
-  // Reads and returns next letter of message.
+  // Reads and returns next letter of message (as text), or
+  // null at end of message. Adapter over readSymbol.
   // -----------------------------------------------------------
 
   public abstract boolean endOfWord();
@@ -1,26 +1,39 @@
 package InputMessageTypes;
 
 // Import Java API Classes
-import java.io.FileReader;
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 
 // Import Project Classes
+import CodeTables.CodeTableRegistry;
+import CodeTables.MorseCodeTree;
 import Exceptions.InvalidCharFoundException;
 
 public class InputMorseCodeMessage extends InputMessage {
   
   // Instance Variables
-  private String morse_letter;
-  private String previous_morse_letter = "";
-  private String[][] morse_code = new String[26][2];
-  private String morse_code_filename = "Data/MorseCode_Table.txt";
+  private int morse_symbol;
+  private boolean previous_line_blank = false;
+  private MorseCodeTree morse_code;
 
   public InputMorseCodeMessage(BufferedReader input) throws
                             FileNotFoundException, IOException {
     super(input);
-    populateMorseCode(morse_code_filename);
+    morse_code = CodeTableRegistry.getMorseCodeTree();
+  }
+
+  public InputMorseCodeMessage(InputStream input) throws
+                                                IOException {
+    super(input);
+    morse_code = CodeTableRegistry.getMorseCodeTree();
+  }
+
+  public InputMorseCodeMessage(MessageSource input) throws
+                                                IOException {
+    super(input);
+    morse_code = CodeTableRegistry.getMorseCodeTree();
   }
 
   // Character-Ordinal Conversion Methods
@@ -29,130 +42,127 @@ public class InputMorseCodeMessage extends InputMessage {
   // -----------------------------------------------------------
   // Returns ordinal value (position) of chr in the encoding.
   // -----------------------------------------------------------
-    int i = 0;
-    int ordinal_value = 0;
-    boolean found = false;
-
-    while(i < morse_code.length && !found) {
-      if(morse_code[i][1].equals(chr)) {
-        ordinal_value = i;
-        found = true;
-      }
-      else
-        i = i + 1;
-    }
-    return ordinal_value;
-  }
+    int ordinal_value = morse_code.getOrdinal(chr);
 
-   // Input Reading Methods
+    if(ordinal_value == MorseCodeTree.NOT_FOUND)
+      return 0;
+    else
+      return ordinal_value;
+  }
 
-  public String readLetter() throws IOException,
-                              InvalidCharFoundException {
+  public int getCurrentOrdinal() {
   // -----------------------------------------------------------
-  // Reads and returns next Morse-encoded letter from input file
-  // or null if end-of-file found.
-  //
-  // Also sets previous_morse_letter to current value of
-  // morse_letter, and sets morse_letter to new letter read.
+  // Returns ordinal value of the letter last read.
   // -----------------------------------------------------------
-    final String empty_string = "";
-
-    // Read line (containing one letter of Morse code)
-    String line_read = getNextLine();
-
-    // Check for end-of-file
-    if(line_read == null)
-      return null;
-    else {
-      // Check for invalid Morse code found
-      if(!line_read.equals(empty_string))
-        if(invalidMorseCode(line_read))
-          throw new InvalidCharFoundException(line_read);
-
-      // Save current morse coded letter as previous
-      previous_morse_letter = morse_letter;
-      morse_letter = line_read;
-    
-      // Return Morse-coded letter read
-      return morse_letter;
-    }
+    return morse_symbol;
   }
 
-  public boolean endOfWord() {
+   // Input Reading Methods
+
+  public void rewind() throws IOException {
   // -----------------------------------------------------------
-  // Returns true if current morse letter read is a blank line
-  // and previous letter read is not (a blank line).
+  // Positions message back at its start (no blank line read).
   // -----------------------------------------------------------
-    final String blank_line = "";
-
-    return morse_letter.equals(blank_line) &&
-           !previous_morse_letter.equals(blank_line);
+    super.rewind();
+    previous_line_blank = false;
   }
 
-  public boolean endOfLine() throws IOException {
-  // -----------------------------------------------------------  
-  // Returns true if current morse letter read and previous
-  // letter read are both blank lines.
+  public int getDecoderState() {
+  // -----------------------------------------------------------
+  // Returns 1 if the last line read was blank (so a following
+  // blank line ends a sentence), otherwise 0.
   // -----------------------------------------------------------
-    final String blank_line = "";
-    
-    return morse_letter.equals(blank_line) &&
-           previous_morse_letter.equals(blank_line);
+    return previous_line_blank ? 1 : 0;
   }
 
-  // Private Methods
+  public void setDecoderState(int state) {
+    previous_line_blank = (state == 1);
+  }
 
-  private void populateMorseCode(String file_name) throws
-                           FileNotFoundException, IOException {
+  public int readSymbol() throws IOException,
+                              InvalidCharFoundException {
   // -----------------------------------------------------------
-  // Populates array morse_code with the Morse code for the
-  // upper-case letters read from the text file indicated in
-  // morse_code_filename.
+  // Reads next line of input file (containing one letter of
+  // Morse code) and returns the ordinal value of the letter.
+  // A blank line following a letter returns END_OF_WORD, and a
+  // blank line following a blank line returns END_OF_LINE.
+  // Returns END_OF_MESSAGE if end-of-file found.
+  //
+  // Throws InvalidCharFoundException for a line that is not
+  // valid Morse code (unless reading leniently).
   // -----------------------------------------------------------
-    String line;
 
-    // Open Morse code file
-    BufferedReader input_file = 
-       new BufferedReader(new FileReader(file_name));
-    
-    // Read first line
-    line = input_file.readLine();
-    int i = 0;
+    int length;
+
+    // Read next line (skipping lines of invalid Morse code if
+    // reading leniently)
+    while(true) {
+
+      // Check for end-of-file
+      if(!readNextLine()) {
+        morse_symbol = END_OF_MESSAGE;
+        return morse_symbol;
+      }
+
+      length = getLineLength();
+
+      if(length == 0)
+        break;
 
-    // Continue reading lines until end of file
-    while(line != null) {
+      // Check for invalid Morse code found (resolving its
+      // ordinal value in the same walk of the code tree)
+      morse_symbol = morse_code.getOrdinal(getLineBytes(), 0, length);
 
-      // Read letter part of Morse code file
-      morse_code[i][0] = line.substring(0,1);
+      if(morse_symbol != MorseCodeTree.NOT_FOUND)
+        break;
 
-      // Read corresponding Morse code of letter
-      morse_code[i][1] = line.substring(1, line.length());
+      if(!skipInvalid(0, length))
+        throw new InvalidCharFoundException(getLineText(0, length));
 
-      // Read next line of file
-      line = input_file.readLine();
-      i = i + 1;
+      // Skipped letter still separates blank lines
+      previous_line_blank = false;
     }
 
-    // Close file
-    input_file.close();
+    if(length == 0) {
+      if(previous_line_blank)
+        morse_symbol = END_OF_LINE;
+      else
+        morse_symbol = END_OF_WORD;
+
+      previous_line_blank = true;
+    }
+    else
+      previous_line_blank = false;
+
+    return morse_symbol;
   }
 
-  private boolean invalidMorseCode(String chr_str) {
+  public String readLetter() throws IOException,
+                              InvalidCharFoundException {
   // -----------------------------------------------------------
-  // Returns true if ch_str not valid Morse code for A-Z, 0-9.
+  // Reads and returns next Morse-encoded letter from input file
+  // (an empty string for a blank line), or null if end-of-file
+  // found.
   // -----------------------------------------------------------
-    boolean found = false;
-
-    // Search for chr_str in Morse code table
-    int i = 0;
+    if(readSymbol() == END_OF_MESSAGE)
+      return null;
+    else
+      return getLineText(0, getLineLength());
+  }
 
-    while(i < morse_code.length && !found)
-      if(chr_str.equals(morse_code[i][1]))
-        found = true;
-      else
-        i = i + 1;
+  public boolean endOfWord() {
+  // -----------------------------------------------------------
+  // Returns true if current morse letter read is a blank line
+  // and previous letter read is not (a blank line).
+  // -----------------------------------------------------------
+    return morse_symbol == END_OF_WORD;
+  }
 
-    // Return true if Morse code NOT found, else false
-    return !found;
+  public boolean endOfLine() throws IOException {
+  // -----------------------------------------------------------  
+  // Returns true if current morse letter read and previous
+  // letter read are both blank lines.
+  // -----------------------------------------------------------
+    return morse_symbol == END_OF_LINE;
   }
 }
\ No newline at end of file
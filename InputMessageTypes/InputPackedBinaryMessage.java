@@ -0,0 +1,186 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Import Project Classes
+import CodeTables.BinaryCodeIndex;
+import CodeTables.CodeTableRegistry;
+
+public class InputPackedBinaryMessage extends InputMessage {
+  // -----------------------------------------------------------
+  // Reads a packed binary message (see OutputPackedBinaryMessage):
+  // each byte of a line is the 8-bit Binary code of a letter,
+  // or a blank between words, and each line is a sentence. As
+  // for Binary messages, a code of no letter is read as the
+  // letter with ordinal value 0.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private final String EOL = "\n";
+  private final String BLANK = " ";
+
+  // Instance Variables
+  private int[] symbol_of_byte = new int[256];
+  private byte[] line_buffer;
+  private int line_length = 0;
+  private int current_byte_index = 1;
+  private int last_symbol;
+
+  public InputPackedBinaryMessage(BufferedReader input) throws
+                            FileNotFoundException, IOException {
+    super(input);
+    loadSymbols();
+  }
+
+  public InputPackedBinaryMessage(InputStream input) throws
+                                                IOException {
+    super(input);
+    loadSymbols();
+  }
+
+  public InputPackedBinaryMessage(MessageSource input) throws
+                                                IOException {
+    super(input);
+    loadSymbols();
+  }
+
+  // Character-Ordinal Conversion Methods
+
+  public int getOrdinal(String chr) {
+  // -----------------------------------------------------------
+  // Returns ordinal value (position) of chr in the encoding.
+  // -----------------------------------------------------------
+    int symbol = symbol_of_byte[chr.charAt(0) & 0xFF];
+
+    if(symbol >= 0)
+      return symbol;
+    else
+      return 0;
+  }
+
+  public int getCurrentOrdinal() {
+  // -----------------------------------------------------------
+  // Returns ordinal value of the letter last read.
+  // -----------------------------------------------------------
+    return last_symbol;
+  }
+
+  // Input Reading Methods
+
+  public void rewind() throws IOException {
+  // -----------------------------------------------------------
+  // Positions message back at its start (before its first
+  // line).
+  // -----------------------------------------------------------
+    super.rewind();
+    line_length = 0;
+    current_byte_index = 1;
+  }
+
+  public int readSymbol() throws IOException {
+  // -----------------------------------------------------------
+  // Retrieves next symbol from current line read: the ordinal
+  // value of a letter, END_OF_WORD for a blank, and END_OF_LINE
+  // after the last byte of the line (or for a blank line).
+  // Returns END_OF_MESSAGE at end-of-file.
+  // Reads next line of file if at end of current line.
+  // -----------------------------------------------------------
+
+    // At end-of-line? (END_OF_LINE already returned)
+    if(current_byte_index > line_length) {
+
+      // Read next line of file
+      if(!readNextLine()) {
+        last_symbol = END_OF_MESSAGE;
+        return last_symbol;
+      }
+
+      line_buffer = getLineBytes();
+      line_length = getLineLength();
+
+      // Set current byte as first byte of line buffer
+      current_byte_index = 0;
+    }
+
+    // Return END_OF_LINE after last byte of line
+    if(current_byte_index == line_length) {
+      current_byte_index = current_byte_index + 1;
+      last_symbol = END_OF_LINE;
+      return last_symbol;
+    }
+
+    // Look up symbol of next byte of current line buffer
+    last_symbol = symbol_of_byte[line_buffer[current_byte_index] & 0xFF];
+    current_byte_index = current_byte_index + 1;
+
+    return last_symbol;
+  }
+
+  public String readLetter() throws IOException {
+  // -----------------------------------------------------------
+  // Retrieves next letter (code byte) from current line read.
+  // Returns null at end-of-file, EOL at end-of-line and a blank
+  // at end-of-word.
+  // -----------------------------------------------------------
+    int symbol = readSymbol();
+
+    if(symbol == END_OF_MESSAGE)
+      return null;
+    else
+      if(symbol == END_OF_LINE)
+        return EOL;
+      else
+        if(symbol == END_OF_WORD)
+          return BLANK;
+        else
+          return getLineText(current_byte_index - 1, current_byte_index);
+  }
+
+  public boolean endOfWord() {
+  // -----------------------------------------------------------
+  // Returns true if last byte read a blank
+  // otherwise, returns false.
+  // -----------------------------------------------------------
+    return last_symbol == END_OF_WORD;
+  }
+
+  public boolean endOfLine() {
+  // -----------------------------------------------------------
+  // Returns true if last byte in line buffer read
+  // otherwise, returns false.
+  // -----------------------------------------------------------
+    return last_symbol == END_OF_LINE;
+  }
+
+  // Private Methods
+
+  private void loadSymbols() throws IOException {
+  // -----------------------------------------------------------
+  // Indexes symbols by byte: a blank maps to END_OF_WORD, the
+  // code of a letter to its ordinal value and any other byte
+  // to 0. Throws IOException if the Binary code table has
+  // codes that cannot be packed.
+  // -----------------------------------------------------------
+    BinaryCodeIndex binary_code = CodeTableRegistry.getBinaryCodeIndex();
+
+    if(!binary_code.isPackable())
+      throw new IOException("binary codes cannot be packed " +
+                            "(ASCII codes other than blank or " +
+                            "line end expected)");
+
+    for(int code = 0; code < symbol_of_byte.length; code++) {
+      int ordinal_value = binary_code.getOrdinal(code);
+
+      if(ordinal_value == BinaryCodeIndex.NOT_FOUND)
+        symbol_of_byte[code] = 0;
+      else
+        symbol_of_byte[code] = ordinal_value;
+    }
+
+    symbol_of_byte[' '] = END_OF_WORD;
+  }
+}
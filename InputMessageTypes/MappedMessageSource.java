@@ -0,0 +1,201 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+
+public class MappedMessageSource extends MessageSource {
+  // -----------------------------------------------------------
+  // MessageSource that reads a message file as raw ASCII bytes
+  // through memory-mapped windows of the file, so no charset
+  // decoding is done and files far larger than the heap can be
+  // read at close to disk speed. Rewinding only resets the
+  // read position.
+  //
+  // A range of the file (start..end-1) may be read on its own,
+  // which lets several sources share one file (a source only
+  // closes a channel it opened itself).
+  //
+  // The bytes read may also be hashed as they are read (see
+  // setDigest), so a file can be hashed without being read a
+  // second time.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final long WINDOW_SIZE = 1L << 30;
+
+  // Instance Variables
+  private FileChannel channel;
+  private boolean owns_channel = false;
+  private long start;
+  private long end;
+  private MappedByteBuffer window;
+  private long window_start;
+  private int window_length;
+  private long position;
+  private boolean skip_line_feed = false;
+  private MessageDigest digest;      // of bytes read (if any)
+
+  // Constructors
+  public MappedMessageSource(String file_name) throws
+                            FileNotFoundException, IOException {
+  // -----------------------------------------------------------
+  // Opens file_name to read the whole file.
+  // Throws FileNotFoundException if file not found.
+  // -----------------------------------------------------------
+    this(new RandomAccessFile(file_name, "r").getChannel());
+    owns_channel = true;
+  }
+
+  public MappedMessageSource(FileChannel channel) throws
+                                                IOException {
+    this(channel, 0, channel.size());
+  }
+
+  public MappedMessageSource(FileChannel channel, long start,
+                             long end) throws IOException {
+  // -----------------------------------------------------------
+  // Reads bytes start..end-1 of the file open on channel.
+  // -----------------------------------------------------------
+    this.channel = channel;
+    this.start = start;
+    this.end = end;
+    mapWindow(start);
+    position = start;
+  }
+
+  public boolean nextLine() throws IOException {
+  // -----------------------------------------------------------
+  // Reads next line of the file into the line buffer.
+  // Returns false at end of file (or of the range read).
+  // -----------------------------------------------------------
+
+    // Skip '\n' of a "\r\n" line terminator
+    if(skip_line_feed) {
+      skip_line_feed = false;
+      if(position < end && byteAt(position) == '\n') {
+        position = position + 1;
+        if(digest != null)
+          digest.update((byte) '\n');
+      }
+    }
+
+    if(position >= end) {
+      clearLine();
+      return false;
+    }
+
+    // Find end of line (mapping a new window at the start of
+    // the line if it runs past the current window)
+    long line_start = position;
+    long scan = position;
+    int terminator = -1;
+
+    while(scan < end && terminator == -1) {
+      if(scan >= window_start + window_length) {
+        if(line_start == window_start)
+          throw new IOException("line longer than " +
+                                WINDOW_SIZE + " bytes");
+        mapWindow(line_start);
+      }
+
+      int chr = window.get((int) (scan - window_start));
+
+      if(chr == '\n' || chr == '\r')
+        terminator = chr;
+      else
+        scan = scan + 1;
+    }
+
+    // Copy line into line buffer
+    int length = (int) (scan - line_start);
+    byte[] line = reserveLine(length);
+    window.get((int) (line_start - window_start), line, 0, length);
+
+    if(digest != null)
+      digest.update(line, 0, length);
+
+    // Move past line terminator
+    if(terminator != -1) {
+      scan = scan + 1;
+      skip_line_feed = (terminator == '\r');
+      if(digest != null)
+        digest.update((byte) terminator);
+    }
+    position = scan;
+
+    return true;
+  }
+
+  public void rewind() throws IOException {
+  // -----------------------------------------------------------
+  // Positions source back at the start of the message.
+  // -----------------------------------------------------------
+    if(window_start != start)
+      mapWindow(start);
+
+    position = start;
+    skip_line_feed = false;
+
+    if(digest != null)
+      digest.reset();
+  }
+
+  public void setDigest(MessageDigest digest) {
+  // -----------------------------------------------------------
+  // Hashes every byte read from now on (and from the start of
+  // the message again, once rewound) into digest, so that once
+  // the message is read to its end, digest holds the hash of
+  // the range read. A null digest stops hashing.
+  // -----------------------------------------------------------
+    this.digest = digest;
+  }
+
+  public long getPosition() {
+  // -----------------------------------------------------------
+  // Returns file position of the next line to be read.
+  // -----------------------------------------------------------
+    return position;
+  }
+
+  public boolean isOpen() {
+    return channel.isOpen();
+  }
+
+  public void close() throws IOException {
+    if(owns_channel)
+      channel.close();
+  }
+
+  // Private Methods
+
+  private int byteAt(long file_position) throws IOException {
+  // -----------------------------------------------------------
+  // Returns byte at file_position, mapping a new window there
+  // if outside of the current window.
+  // -----------------------------------------------------------
+    if(file_position < window_start || 
+       file_position >= window_start + window_length)
+      mapWindow(file_position);
+
+    return window.get((int) (file_position - window_start));
+  }
+
+  private void mapWindow(long window_position) throws IOException {
+  // -----------------------------------------------------------
+  // Maps up to WINDOW_SIZE bytes of the file (not beyond end)
+  // from window_position.
+  // -----------------------------------------------------------
+    long start = System.nanoTime();
+
+    window_start = window_position;
+    window_length = (int) Math.min(WINDOW_SIZE, end - window_position);
+    window = channel.map(FileChannel.MapMode.READ_ONLY,
+                         window_start, window_length);
+    recordRead(start);
+  }
+}
@@ -0,0 +1,140 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public abstract class MessageSource {
+  // -----------------------------------------------------------
+  // Supplies the lines of a message one at a time as ASCII
+  // bytes in a reusable line buffer, so that reading a message
+  // allocates no String per line (or per letter).
+  //
+  // Lines end in '\n', '\r' or "\r\n" (as for readLine), and
+  // the line terminator is not stored in the line buffer.
+  // -----------------------------------------------------------
+
+  // Instance Variables
+  private byte[] line_bytes = new byte[256];
+  private int line_length = 0;
+  private long read_nanos = 0;
+
+  // Line Buffer Methods
+
+  public byte[] getLineBytes() {
+  // -----------------------------------------------------------
+  // Returns the buffer holding the current line. The buffer is
+  // reused (and may be replaced) by the next call to nextLine.
+  // -----------------------------------------------------------
+    return line_bytes;
+  }
+
+  public int getLineLength() {
+  // -----------------------------------------------------------
+  // Returns number of chars in the current line.
+  // -----------------------------------------------------------
+    return line_length;
+  }
+
+  public String getLineText(int start, int end) {
+  // -----------------------------------------------------------
+  // Returns chars start..end-1 of the current line as a String
+  // (used for error messages and the String-based methods).
+  // -----------------------------------------------------------
+    return new String(line_bytes, start, end - start,
+                      StandardCharsets.ISO_8859_1);
+  }
+
+  public long getReadNanos() {
+  // -----------------------------------------------------------
+  // Returns time spent reading the underlying input so far, in
+  // nanoseconds (splitting it into lines is not included).
+  // -----------------------------------------------------------
+    return read_nanos;
+  }
+
+  // Protected Methods
+
+  protected void recordRead(long start) {
+  // -----------------------------------------------------------
+  // Adds time since start to the time spent reading the
+  // underlying input (called once per block read).
+  // -----------------------------------------------------------
+    read_nanos = read_nanos + (System.nanoTime() - start);
+  }
+
+  protected void clearLine() {
+  // -----------------------------------------------------------
+  // Empties the line buffer (before a new line is stored).
+  // -----------------------------------------------------------
+    line_length = 0;
+  }
+
+  protected void appendToLine(int chr) {
+  // -----------------------------------------------------------
+  // Appends a single byte to the line buffer, growing it if
+  // the line is longer than any line read so far.
+  // -----------------------------------------------------------
+    if(line_length == line_bytes.length)
+      growLine(line_length + 1);
+
+    line_bytes[line_length] = (byte) chr;
+    line_length = line_length + 1;
+  }
+
+  protected void appendToLine(byte[] bytes, int start, int length) {
+  // -----------------------------------------------------------
+  // Appends bytes[start..start+length-1] to the line buffer,
+  // growing it as needed.
+  // -----------------------------------------------------------
+    growLine(line_length + length);
+
+    System.arraycopy(bytes, start, line_bytes, line_length, length);
+    line_length = line_length + length;
+  }
+
+  protected byte[] reserveLine(int length) {
+  // -----------------------------------------------------------
+  // Sets the current line to length bytes and returns the line
+  // buffer for the caller to fill (in bulk) with those bytes.
+  // -----------------------------------------------------------
+    line_length = 0;
+    growLine(length);
+    line_length = length;
+    return line_bytes;
+  }
+
+  protected void growLine(int min_capacity) {
+  // -----------------------------------------------------------
+  // Grows the line buffer to hold at least min_capacity bytes.
+  // -----------------------------------------------------------
+    if(min_capacity > line_bytes.length) {
+      byte[] bigger = 
+          new byte[Math.max(min_capacity, 2 * line_bytes.length)];
+
+      System.arraycopy(line_bytes, 0, bigger, 0, line_length);
+      line_bytes = bigger;
+    }
+  }
+
+  public void rewind() throws IOException {
+  // -----------------------------------------------------------
+  // Positions the source back at the start of the message.
+  // Throws IOException if the source cannot be rewound.
+  // -----------------------------------------------------------
+    throw new IOException("message source cannot be rewound");
+  }
+
+  // Abstract Methods
+
+  public abstract boolean nextLine() throws IOException;
+  // -----------------------------------------------------------
+  // Reads next line of the message into the line buffer.
+  // Returns false (leaving the buffer empty) at end-of-file.
+  // -----------------------------------------------------------
+
+  public abstract void close() throws IOException;
+  // -----------------------------------------------------------
+  // Closes the underlying input.
+  // -----------------------------------------------------------
+}
@@ -0,0 +1,99 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.io.Reader;
+
+public class ReaderMessageSource extends MessageSource {
+  // -----------------------------------------------------------
+  // MessageSource over a character stream (such as the
+  // BufferedReader opened by Main). Chars are read in blocks
+  // and split into lines without creating Strings.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final int BLOCK_SIZE = 8192;
+  private static final int NOT_ASCII = 0xFF;
+
+  // Instance Variables
+  private Reader input;
+  private char[] block = new char[BLOCK_SIZE];
+  private int block_index = 0;
+  private int block_length = 0;
+  private boolean skip_line_feed = false;
+  private char[] line_chars = new char[256];
+
+  // Constructor
+  public ReaderMessageSource(Reader input) {
+    this.input = input;
+  }
+
+  public boolean nextLine() throws IOException {
+  // -----------------------------------------------------------
+  // Reads next line of the message into the line buffer.
+  // Returns false at end-of-file.
+  // -----------------------------------------------------------
+    boolean line_found = false;
+
+    clearLine();
+
+    while(true) {
+
+      // Read next block of chars when current block used up
+      if(block_index >= block_length) {
+        long start = System.nanoTime();
+        block_length = input.read(block, 0, block.length);
+        recordRead(start);
+        block_index = 0;
+
+        // At end-of-file, last line may have no terminator
+        if(block_length <= 0) {
+          block_length = 0;
+          return line_found;
+        }
+      }
+
+      char chr = block[block_index];
+      block_index = block_index + 1;
+
+      // Skip '\n' of a "\r\n" line terminator
+      if(skip_line_feed) {
+        skip_line_feed = false;
+        if(chr == '\n')
+          continue;
+      }
+
+      if(chr == '\n')
+        return true;
+
+      if(chr == '\r') {
+        skip_line_feed = true;
+        return true;
+      }
+
+      // Keep original char (for messages) and its ASCII byte
+      int length = getLineLength();
+      if(length == line_chars.length) {
+        char[] bigger = new char[2 * line_chars.length];
+        System.arraycopy(line_chars, 0, bigger, 0, length);
+        line_chars = bigger;
+      }
+      line_chars[length] = chr;
+
+      appendToLine(chr < 0x80 ? chr : NOT_ASCII);
+      line_found = true;
+    }
+  }
+
+  public String getLineText(int start, int end) {
+  // -----------------------------------------------------------
+  // Returns chars start..end-1 of the current line as read
+  // (including any non-ASCII chars).
+  // -----------------------------------------------------------
+    return new String(line_chars, start, end - start);
+  }
+
+  public void close() throws IOException {
+    input.close();
+  }
+}
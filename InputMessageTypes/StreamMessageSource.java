@@ -0,0 +1,88 @@
+package InputMessageTypes;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.io.InputStream;
+
+public class StreamMessageSource extends MessageSource {
+  // -----------------------------------------------------------
+  // MessageSource over a byte stream (such as standard input or
+  // a socket). Bytes are read in blocks and each line is copied
+  // in bulk into the line buffer, so memory use is bounded by
+  // the block size and the longest line.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final int BLOCK_SIZE = 8192;
+
+  // Instance Variables
+  private InputStream input;
+  private byte[] block = new byte[BLOCK_SIZE];
+  private int block_index = 0;
+  private int block_length = 0;
+  private boolean skip_line_feed = false;
+
+  // Constructor
+  public StreamMessageSource(InputStream input) {
+    this.input = input;
+  }
+
+  public boolean nextLine() throws IOException {
+  // -----------------------------------------------------------
+  // Reads next line of the message into the line buffer.
+  // Returns false at end-of-file.
+  // -----------------------------------------------------------
+    boolean line_found = false;
+
+    clearLine();
+
+    while(true) {
+
+      // Read next block of bytes when current block used up
+      if(block_index >= block_length) {
+        long start = System.nanoTime();
+        block_length = input.read(block, 0, block.length);
+        recordRead(start);
+        block_index = 0;
+
+        // At end-of-file, last line may have no terminator
+        if(block_length <= 0) {
+          block_length = 0;
+          return line_found;
+        }
+      }
+
+      // Skip '\n' of a "\r\n" line terminator
+      if(skip_line_feed) {
+        skip_line_feed = false;
+        if(block[block_index] == '\n') {
+          block_index = block_index + 1;
+          continue;
+        }
+      }
+
+      // Find end of line within current block
+      int line_end = block_index;
+      while(line_end < block_length && block[line_end] != '\n' &&
+            block[line_end] != '\r')
+        line_end = line_end + 1;
+
+      appendToLine(block, block_index, line_end - block_index);
+
+      // Line continues in next block?
+      if(line_end == block_length) {
+        block_index = block_length;
+        line_found = true;
+        continue;
+      }
+
+      skip_line_feed = (block[line_end] == '\r');
+      block_index = line_end + 1;
+      return true;
+    }
+  }
+
+  public void close() throws IOException {
+    input.close();
+  }
+}
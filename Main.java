@@ -15,30 +15,113 @@
 // 5 - Translate to English
 // 6 - Quit
 // -----------------------------------------------------------
+// BATCH MODE (no menu)
+// java Main batch --to <type>[,<type>...] [--threads n] <path> ...
+//
+// Translates every file named by the paths (files, directories
+// of .txt files or glob patterns such as dir/*_MORSE.txt) to
+// <type> (ENGLISH, MORSE, MORSECOMPACT, BINARY or BINPACKED),
+// several files at a time. Several types (e.g. --to
+// MORSE,BINARY) are all written in a single pass over each
+// file.
+//
+// BINPACKED files (_BINPACKED.txt) hold the 8-bit Binary code
+// of each letter as a single byte, a blank between words and
+// a line end after each sentence: about a ninth of the size of
+// the same message as _BINARY.
+//
+// MORSECOMPACT files (_MORSECOMPACT.txt) hold each sentence of
+// Morse code on one line, with blanks between letters and a
+// '/' between words.
+//
+// With --lenient (in batch or pipe mode), invalid chars and
+// codes are skipped rather than ending the translation, and
+// their line and column are reported (the first 100 listed).
+// -----------------------------------------------------------
+// TRANSLATION CACHE
+// Translations of files (from the menu or in batch mode) are
+// kept in directory .translation_cache, keyed by a hash of the
+// file contents (taken as the file is translated), so
+// translating the same file again only copies the earlier
+// translation. A file is hashed to look it up only if a file
+// of the same size and modification time was translated.
+// -----------------------------------------------------------
+// PIPE MODE (no menu)
+// java Main translate --from <type> --to <type> < in > out
+//
+// Translates standard input to standard output as it is read
+// (in bounded memory, with no temporary files), e.g. as part
+// of a shell pipeline.
+// -----------------------------------------------------------
+// FOLLOW MODE (no menu)
+// java Main follow --to <type> [--interval ms] [--once] <path>
+//
+// Follows a message file that keeps growing (e.g. a capture
+// log), translating only the complete lines appended since the
+// last poll (every 1000 ms by default) and appending them to
+// <file><type>.txt. Progress is checkpointed in
+// <file><type>.txt.follow, so following the file again later
+// carries on where it stopped. --once polls once and exits.
+// -----------------------------------------------------------
+// SERVER MODE (no menu)
+// java Main serve [--port n] [--workers n]
+//
+// Serves translations over TCP on a local port (7237 by
+// default) until killed, so many short messages can be
+// translated without starting the program for each one (see
+// Server.TranslationProtocol for the frames sent and received,
+// and Server.LoadGenerator to measure a running server).
+//
+// In server and follow modes the translation metrics are
+// published over JMX; in the other modes only with
+// -Dtranslator.jmx=true.
+// -----------------------------------------------------------
 
 // Import Java API Classes
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.PrintWriter;
+import java.io.File;
 import java.io.IOException;
 import java.io.FileNotFoundException;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Scanner;
 import java.util.InputMismatchException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 // Import Project Classes
+import Exceptions.InvalidBinaryCodeFoundException;
 import Exceptions.InvalidCharFoundException;
 import Exceptions.InvalidMessageTypeException;
+import InputMessageTypes.ErrorReport;
 import InputMessageTypes.InputBinaryCodeMessage;
+import InputMessageTypes.InputCompactMorseMessage;
 import InputMessageTypes.InputEnglishMessage;
 import InputMessageTypes.InputMessage;
 import InputMessageTypes.InputMorseCodeMessage;
-import OutputMessageTypes.OutputBinaryCodeMessage;
-import OutputMessageTypes.OutputEnglishMessage;
-import OutputMessageTypes.OutputMorseCodeMessage;
+import InputMessageTypes.InputPackedBinaryMessage;
+import InputMessageTypes.MappedMessageSource;
+import OutputMessageTypes.AsyncFileWriter;
+import OutputMessageTypes.OutputMessage;
+import Server.TranslationServer;
+import Translator.FollowTranslator;
+import Translator.MessageType;
+import Translator.ParallelTranslator;
+import Translator.TranslationCache;
+import Translator.TranslationMetrics;
 import Translator.Translator;
 
 class Main {
-  private static BufferedReader input_file;
+  private static MappedMessageSource input_file;
   private static InputMessage input_message;
   private static String current_file_name = "";
   private static Scanner keyboard = new Scanner(System.in);
@@ -46,11 +129,27 @@ class Main {
   private final static String ENGLISH_FILE_TYPE = "_ENGLISH";
   private final static String MORSE_CODE_FILE_TYPE = "_MORSE";
   private final static String BINARY_CODE_FILE_TYPE = "_BINARY";
+  private final static String PACKED_BINARY_FILE_TYPE = "_BINPACKED";
+  private final static String COMPACT_MORSE_FILE_TYPE = "_MORSECOMPACT";
+
+  private final static long PARALLEL_FILE_SIZE = 
+                                  16 * ParallelTranslator.CHUNK_SIZE;
+
+  private final static String CACHE_DIRECTORY = ".translation_cache";
+  private final static long CACHE_SIZE = 256L << 20;
+  private static TranslationCache cache;
+  private static boolean cache_opened = false;
   
   public static void main(String[] args) {
     int selection;
     boolean quit = false;
 
+    // Run without menu if command given
+    if(args.length > 0) {
+      System.exit(executeCommand(args));
+      return;
+    }
+
     displayProgramWelcome();
 
     while(!quit) {
@@ -65,7 +164,8 @@ class Main {
       }
       catch(InvalidMessageTypeException e) {
         System.out.println("\n* INVALID MESSAGE TYPE FOUND: " +
-                "(_ENGLISH, _MORSE or _BINARY expected *)\n");
+                "(_ENGLISH, _MORSE, _MORSECOMPACT, _BINARY or " +
+                "_BINPACKED expected *)\n");
       }
       catch(InvalidCharFoundException e) {
         System.out.println("\n* INVALID CHAR FOUND: " +
@@ -158,15 +258,17 @@ class Main {
 
   public static void rewindCurrentFile() throws IOException {
   // -----------------------------------------------------------
-  // Rewinds file to start reading from the beginning.
+  // Rewinds file to start reading from the beginning. (The file
+  // is memory-mapped, so this only resets the read position
+  // unless a translation has since closed the file.)
   // -----------------------------------------------------------
 
-    // close current file
-    input_file.close();
-  
-    // re-open current file (to re-read)
-    input_file = new BufferedReader(
-                    new FileReader(current_file_name + ".txt"));
+    if(input_file.isOpen())
+      input_file.rewind();
+    else
+      // re-open current file (to re-read)
+      input_file = 
+          new MappedMessageSource(current_file_name + ".txt");
   } 
 
   public static void createInputMessage() throws FileNotFoundException,
@@ -189,6 +291,12 @@ class Main {
       else
         if(fileType(current_file_name).equals(BINARY_CODE_FILE_TYPE))
           input_message = new InputBinaryCodeMessage(input_file);
+        else
+          if(fileType(current_file_name).equals(PACKED_BINARY_FILE_TYPE))
+            input_message = new InputPackedBinaryMessage(input_file);
+          else
+            if(fileType(current_file_name).equals(COMPACT_MORSE_FILE_TYPE))
+              input_message = new InputCompactMorseMessage(input_file);
   }
 
   // --- OPTION 1
@@ -206,8 +314,7 @@ class Main {
       System.out.println("Enter file name (without .txt): ");
       file_name = keyboard.next();
 
-      input_file = new BufferedReader(
-                      new FileReader(file_name + ".txt"));
+      input_file = new MappedMessageSource(file_name + ".txt");
 
       // Indicate file opened successfully
       file_opened_successfully = true;
@@ -235,14 +342,10 @@ class Main {
     // Rewind file to read from start
     rewindCurrentFile();
 
-    // Read first line of file
-    String line_read = input_file.readLine();
-
-    // Continue reading until end-of-file found
-    while(line_read != null) {
-      System.out.println(line_read);
-      line_read = input_file.readLine();
-    }
+    // Display each line of file until end-of-file found
+    while(input_file.nextLine())
+      System.out.println(
+          input_file.getLineText(0, input_file.getLineLength()));
 
     System.out.println();
   }
@@ -256,27 +359,7 @@ class Main {
   // writes to file <current_file_name>_MORSE.txt
   // -----------------------------------------------------------
     
-    // Check that file open
-    if(current_file_name.equals(""))
-      System.out.println(
-        "* NO FILE CURRENTLY OPEN TO TRANSLATE *\n");
-    else {
-
-      // Construct InputMessage Object (for current_file_name)
-      createInputMessage();
-      
-      // Construct OutputMessage
-      OutputMorseCodeMessage output_message = 
-        new OutputMorseCodeMessage(
-          new PrintWriter(current_file_name + "_MORSE" + ".txt"));
-
-      // Construct Translator object
-      Translator translator = 
-        new Translator(input_message, output_message);
-
-      // Begin translation
-      translator.translate();
-    }
+    translateCurrentFile(MessageType.MORSE);
   }
 
   // --- OPTION 4
@@ -288,27 +371,7 @@ class Main {
   // writes to file <current_file_name>_BINARY.txt
   // -----------------------------------------------------------
     
-    // Check that file open
-    if(current_file_name.equals(""))
-      System.out.println(
-        "* NO FILE CURRENTLY OPEN TO TRANSLATE *\n");
-    else {
-    
-      // Construct InputMessage Object (for current_file_name)
-      createInputMessage();
-
-      // Construct OutputMessage
-      OutputBinaryCodeMessage output_message = 
-        new OutputBinaryCodeMessage(
-          new PrintWriter(current_file_name + "_BINARY" + ".txt"));
-
-      // Construct Translator object
-      Translator translator = 
-        new Translator(input_message, output_message);
-
-      // Begin translation
-      translator.translate();
-    }
+    translateCurrentFile(MessageType.BINARY);
   }
 
   // --- OPTION 5
@@ -319,30 +382,726 @@ class Main {
   // writes to file <current_file_name>_ENGLISH.txt.
   // -----------------------------------------------------------
     
+    translateCurrentFile(MessageType.ENGLISH);
+  }
+
+  // --- BATCH MODE
+  public static int executeCommand(String[] args) {
+  // -----------------------------------------------------------
+  // Executes command line args (without the menu). Returns
+  // exit status: 0 if successful, 1 if any translation failed
+  // and 2 for an invalid command line.
+  // -----------------------------------------------------------
+    try {
+      if(args[0].equals("batch"))
+        return translateBatch(args);
+
+      if(args[0].equals("translate"))
+        return translatePipe(args);
+
+      if(args[0].equals("follow"))
+        return translateFollow(args);
+
+      if(args[0].equals("serve"))
+        return serve(args);
+    }
+    catch(IllegalArgumentException e) {
+      System.out.println("* " + e.getMessage() + " *");
+    }
+    catch(IOException e) {
+      System.out.println("* IO ERROR: " + e.getMessage() + " *");
+      return 1;
+    }
+
+    System.out.println("Usage: java Main batch --to <type>[,<type>] " +
+                       "[--threads n] [--lenient] " +
+                       "<file|directory|glob> ...");
+    System.out.println("       java Main translate --from <type> " +
+                       "--to <type> [--lenient] < input > output");
+    System.out.println("       java Main follow --to <type> " +
+                       "[--interval ms] [--once] <file>");
+    System.out.println("       java Main serve [--port n] " +
+                       "[--workers n]");
+    return 2;
+  }
+
+  public static int serve(String[] args) throws IOException {
+  // -----------------------------------------------------------
+  // Serves translations on the local port given by --port,
+  // with the number of worker threads given by --workers
+  // (default: one per core), until the program is killed.
+  // -----------------------------------------------------------
+    int port = TranslationServer.DEFAULT_PORT;
+    int worker_count = Runtime.getRuntime().availableProcessors();
+
+    // Read options
+    for(int i = 1; i < args.length; i++) {
+      if(args[i].equals("--port") && i + 1 < args.length) {
+        port = Integer.parseInt(args[i + 1]);
+        i = i + 1;
+      }
+      else
+        if(args[i].equals("--workers") && i + 1 < args.length) {
+          worker_count = Integer.parseInt(args[i + 1]);
+          i = i + 1;
+        }
+        else
+          throw new IllegalArgumentException("UNKNOWN OPTION: " + args[i]);
+    }
+
+    TranslationServer server = new TranslationServer(port, worker_count);
+
+    TranslationMetrics.publish();
+
+    System.out.println("Serving translations on port " +
+                       server.getPort() + " (" + worker_count +
+                       " workers)");
+    server.serve();
+    return 0;
+  }
+
+  public static int translatePipe(String[] args) throws IOException {
+  // -----------------------------------------------------------
+  // Translates standard input (of the type given by --from) to
+  // standard output (of the type given by --to), streaming
+  // through fixed-size buffers. Errors are reported on
+  // standard error, so they never mix with the translation
+  // (as are the invalid symbols skipped, with --lenient).
+  // -----------------------------------------------------------
+    MessageType input_type = null;
+    MessageType output_type = null;
+    ErrorReport error_report = null;
+
+    // Read options
+    for(int i = 1; i < args.length; i++) {
+      if(args[i].equals("--from") && i + 1 < args.length) {
+        input_type = messageTypeNamed(args[i + 1]);
+        i = i + 1;
+      }
+      else
+        if(args[i].equals("--to") && i + 1 < args.length) {
+          output_type = messageTypeNamed(args[i + 1]);
+          i = i + 1;
+        }
+        else
+          if(args[i].equals("--lenient"))
+            error_report = new ErrorReport();
+          else
+            throw new IllegalArgumentException("UNKNOWN OPTION: " + args[i]);
+    }
+
+    if(input_type == null || output_type == null)
+      throw new IllegalArgumentException(
+                            "MISSING --from <type> OR --to <type>");
+
+    OutputMessage output = output_type.createOutputMessage(System.out);
+
+    try {
+      InputMessage input = input_type.createInputMessage(System.in);
+
+      input.setErrorReport(error_report);
+      new Translator(input, output).translate();
+    }
+    catch(InvalidCharFoundException e) {
+      output.close();
+      System.err.println("* INVALID CHAR FOUND: " + e.getMessage() + " *");
+      return 1;
+    }
+    catch(InvalidBinaryCodeFoundException e) {
+      output.close();
+      System.err.println("* INVALID BINARY CODE FOUND: " +
+                         e.getMessage() + " *");
+      return 1;
+    }
+    catch(IOException e) {
+      System.err.println("* IO ERROR: " + e.getMessage() + " *");
+      return 1;
+    }
+
+    if(error_report != null && error_report.getErrorCount() > 0)
+      System.err.print("* " + error_report.getErrorCount() +
+                       " INVALID SYMBOLS SKIPPED *\n" + error_report);
+
+    return 0;
+  }
+
+  public static int translateFollow(String[] args) throws
+                                                IOException {
+  // -----------------------------------------------------------
+  // Follows the file named by args (after "follow"),
+  // translating what is appended to it to the type given by
+  // --to, every --interval ms until interrupted (or just once
+  // if --once given).
+  // -----------------------------------------------------------
+    MessageType output_type = null;
+    long interval_millis = 1000;
+    boolean once = false;
+    String file_name = null;
+
+    // Read options
+    for(int i = 1; i < args.length; i++) {
+      if(args[i].equals("--to") && i + 1 < args.length) {
+        output_type = messageTypeNamed(args[i + 1]);
+        i = i + 1;
+      }
+      else
+        if(args[i].equals("--interval") && i + 1 < args.length) {
+          interval_millis = Long.parseLong(args[i + 1]);
+          i = i + 1;
+        }
+        else
+          if(args[i].equals("--once"))
+            once = true;
+          else
+            if(file_name == null && !args[i].startsWith("--"))
+              file_name = args[i].endsWith(".txt") ?
+                  args[i].substring(0, args[i].length() - 4) : args[i];
+            else
+              throw new IllegalArgumentException(
+                                      "UNKNOWN OPTION: " + args[i]);
+    }
+
+    if(output_type == null || file_name == null)
+      throw new IllegalArgumentException("MISSING --to <type> OR <file>");
+
+    FollowTranslator follower;
+
+    TranslationMetrics.publish();
+    try {
+      follower = new FollowTranslator(file_name + ".txt",
+                      MessageType.forFileType(fileType(file_name)),
+                      file_name + output_type.getFileType() + ".txt",
+                      output_type);
+    }
+    catch(InvalidMessageTypeException e) {
+      System.out.println("* INVALID MESSAGE TYPE FOUND: " +
+                         "(_ENGLISH, _MORSE, _MORSECOMPACT, _BINARY " +
+                         "or _BINPACKED expected) *");
+      return 1;
+    }
+    catch(FileNotFoundException e) {
+      System.out.println("* FILE NAME NOT FOUND: " +
+                         e.getMessage() + " *");
+      return 1;
+    }
+
+    try {
+      if(once)
+        follower.poll();
+      else
+        follower.follow(interval_millis);
+    }
+    catch(InvalidCharFoundException e) {
+      System.out.println("* INVALID CHAR FOUND: " + e.getMessage() +
+                         " in input file *");
+      return 1;
+    }
+    catch(InvalidBinaryCodeFoundException e) {
+      System.out.println("* INVALID BINARY CODE FOUND: " +
+                         e.getMessage() + " *");
+      return 1;
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      follower.close();
+    }
+
+    return 0;
+  }
+
+  public static int translateBatch(String[] args) throws 
+                                                IOException {
+  // -----------------------------------------------------------
+  // Translates the files named by args (after "batch") to the
+  // types given by --to, at most --threads files at a time
+  // (default: one per core), each on its own virtual thread
+  // when the JVM supports them. Reports the outcome and time
+  // of each file; a failed file does not stop the others.
+  // -----------------------------------------------------------
+    MessageType[] output_types = null;
+    int max_threads = Runtime.getRuntime().availableProcessors();
+    boolean lenient = false;
+    ArrayList<String> file_names = new ArrayList<String>();
+
+    // Read options and expand paths into file names
+    for(int i = 1; i < args.length; i++) {
+      if(args[i].equals("--to") && i + 1 < args.length) {
+        output_types = messageTypesNamed(args[i + 1]);
+        i = i + 1;
+      }
+      else
+        if(args[i].equals("--threads") && i + 1 < args.length) {
+          max_threads = Integer.parseInt(args[i + 1]);
+          i = i + 1;
+        }
+        else
+          if(args[i].equals("--lenient"))
+            lenient = true;
+          else
+            addFileNames(args[i], file_names);
+    }
+
+    if(output_types == null)
+      throw new IllegalArgumentException("MISSING --to <type>");
+
+    // Translate files concurrently
+    final MessageType[] target_types = output_types;
+    final boolean skip_invalid = lenient;
+    final Semaphore running = new Semaphore(max_threads);
+    final AtomicInteger translated = new AtomicInteger();
+    ExecutorService executor = newBatchExecutor(max_threads);
+    long batch_start = System.nanoTime();
+
+    for(final String file_name : file_names) {
+      executor.execute(new Runnable() {
+        public void run() {
+          running.acquireUninterruptibly();
+          try {
+            if(translateFileReporting(file_name, target_types,
+                                      skip_invalid))
+              translated.incrementAndGet();
+          }
+          catch(Throwable e) {
+            System.out.println(file_name + ".txt: FAILED " + e);
+          }
+          finally {
+            running.release();
+          }
+        }
+      });
+    }
+
+    executor.shutdown();
+    try {
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // Count files not reported translated as failed
+    int failed = file_names.size() - translated.get();
+
+    System.out.println(
+      translated.get() + " translated, " +
+      failed + " failed in " + 
+      elapsedMillis(batch_start) + " ms");
+
+    return failed == 0 ? 0 : 1;
+  }
+
+  // Private Methods
+
+  private static boolean translateFileReporting(String file_name,
+                        MessageType[] output_types, boolean lenient) {
+  // -----------------------------------------------------------
+  // Translates file_name (without .txt) to output_types and
+  // prints the outcome and time taken (and, if lenient, the
+  // invalid symbols skipped). Returns true if the translation
+  // succeeded.
+  // -----------------------------------------------------------
+    long start = System.nanoTime();
+    String outcome;
+    String skipped = "";
+    boolean translated = false;
+    ErrorReport error_report = lenient ? new ErrorReport() : null;
+
+    try {
+      translateFile(file_name, output_types, error_report);
+      outcome = "OK    ";
+      for(MessageType output_type : output_types)
+        outcome = outcome + " " + file_name + 
+                  output_type.getFileType() + ".txt";
+      translated = true;
+
+      if(lenient && error_report.getErrorCount() > 0)
+        skipped = error_report.getErrorCount() +
+                  " invalid symbols skipped:\n" + error_report;
+    }
+    catch(InvalidMessageTypeException e) {
+      outcome = "FAILED INVALID MESSAGE TYPE FOUND " +
+                "(_ENGLISH, _MORSE, _MORSECOMPACT, _BINARY or " +
+                "_BINPACKED expected)";
+    }
+    catch(InvalidCharFoundException e) {
+      outcome = "FAILED INVALID CHAR FOUND: " + e.getMessage();
+    }
+    catch(FileNotFoundException e) {
+      outcome = "FAILED FILE NAME NOT FOUND: " + e.getMessage();
+    }
+    catch(Throwable e) {
+      outcome = "FAILED " + e;
+    }
+
+    System.out.print(file_name + ".txt: " + outcome + " (" +
+                     elapsedMillis(start) + " ms)\n" + skipped);
+    return translated;
+  }
+
+  private static void translateFile(String file_name,
+                                    MessageType[] output_types,
+                                    ErrorReport error_report)
+        throws FileNotFoundException, IOException {
+  // -----------------------------------------------------------
+  // Translates file <file_name>.txt to each of output_types in
+  // one pass, writing to files <file_name><output_type>.txt
+  // (like the menu options, but with no shared state, so files
+  // can be translated concurrently). Translations are taken
+  // from (and kept in) the translation cache.
+  //
+  // If error_report is not null, invalid symbols are skipped
+  // and recorded in it. Such translations bypass the cache (as
+  // they differ from those of strict reading), and large files
+  // are pipelined rather than split into chunks (so lines are
+  // numbered from the start of the file).
+  // -----------------------------------------------------------
+    MessageType input_type = MessageType.forFileType(fileType(file_name));
+    String input_file_name = file_name + ".txt";
+    ArrayList<MessageType> missed_types = new ArrayList<MessageType>();
+
+    // Take translations from the cache where possible
+    for(MessageType output_type : output_types) {
+      String cache_key = error_report == null ?
+                    cacheKey(file_name, output_type) : null;
+
+      if(cache_key == null || !cache.fetch(cache_key,
+                  file_name + output_type.getFileType() + ".txt"))
+        missed_types.add(output_type);
+    }
+
+    if(missed_types.isEmpty())
+      return;
+
+    output_types = missed_types.toArray(new MessageType[0]);
+    AsyncFileWriter[] outputs = new AsyncFileWriter[output_types.length];
+    String[] output_file_names = new String[output_types.length];
+
+    try {
+      for(int i = 0; i < output_types.length; i++) {
+        output_file_names[i] = 
+                file_name + output_types[i].getFileType() + ".txt";
+        outputs[i] = new AsyncFileWriter(output_file_names[i]);
+      }
+    }
+    catch(FileNotFoundException e) {
+      discardAfterFailure(outputs, output_file_names, e);
+      throw e;
+    }
+
+    boolean large = 
+              new File(input_file_name).length() >= PARALLEL_FILE_SIZE;
+
+    // Hash input as it is translated (to keep the translations)
+    MessageDigest input_digest = 
+        error_report == null && openCache() != null ?
+                                        cache.newInputDigest() : null;
+
+    // Translate (discarding the outputs if it fails)
+    try {
+      if(large && error_report == null) {
+        ParallelTranslator translator = new ParallelTranslator(
+              input_file_name, input_type, outputs, output_types,
+              ForkJoinPool.commonPool());
+
+        translator.setInputDigest(input_digest);
+        translator.translate();
+      }
+      else {
+        MappedMessageSource source = 
+                          new MappedMessageSource(input_file_name);
+        source.setDigest(input_digest);
+
+        InputMessage input = input_type.createInputMessage(source);
+        OutputMessage[] output_messages = 
+                          new OutputMessage[output_types.length];
+
+        for(int i = 0; i < output_types.length; i++)
+          output_messages[i] = 
+                          output_types[i].createOutputMessage(outputs[i]);
+
+        input.setErrorReport(error_report);
+
+        if(large)
+          new Translator(input, output_messages).translatePipelined();
+        else
+          new Translator(input, output_messages).translate();
+      }
+    }
+    catch(IOException | RuntimeException | Error e) {
+      discardAfterFailure(outputs, output_file_names, e);
+      throw e;
+    }
+
+    if(input_digest != null) {
+      byte[] input_hash = input_digest.digest();
+
+      for(int i = 0; i < output_types.length; i++)
+        cache.store(cache.keyFor(input_hash, input_type, output_types[i]),
+                    input_file_name, output_file_names[i]);
+    }
+  }
+
+  private static void addFileNames(String path,
+                        ArrayList<String> file_names) throws
+                                                  IOException {
+  // -----------------------------------------------------------
+  // Adds names (without .txt) of the files named by path: a
+  // file, a directory (its .txt files with a message type
+  // suffix) or a glob pattern in its last name element.
+  // -----------------------------------------------------------
+    Path file_path = Paths.get(path);
+    String last_name = file_path.getFileName() == null ? "" :
+                                file_path.getFileName().toString();
+
+    if(Files.isDirectory(file_path))
+      addMatchingFileNames(file_path, "*.txt", file_names);
+    else
+      if(last_name.indexOf('*') >= 0 || last_name.indexOf('?') >= 0 ||
+         last_name.indexOf('[') >= 0 || last_name.indexOf('{') >= 0) {
+        Path directory = file_path.getParent() == null ? 
+                            Paths.get(".") : file_path.getParent();
+        addMatchingFileNames(directory, last_name, file_names);
+      }
+      else
+        // Single file (reported if not found)
+        file_names.add(path.endsWith(".txt") ?
+                       path.substring(0, path.length() - 4) : path);
+  }
+
+  private static void addMatchingFileNames(Path directory,
+                        String glob, ArrayList<String> file_names)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Adds names (without .txt) of the .txt files in directory
+  // matching glob that have a message type suffix.
+  // -----------------------------------------------------------
+    ArrayList<String> matches = new ArrayList<String>();
+
+    try (DirectoryStream<Path> files =
+                    Files.newDirectoryStream(directory, glob)) {
+      for(Path file : files) {
+        String name = file.toString();
+
+        if(name.endsWith(".txt") && Files.isRegularFile(file)) {
+          name = name.substring(0, name.length() - 4);
+
+          try {
+            fileType(name);
+            matches.add(name);
+          }
+          catch(InvalidMessageTypeException e) {
+            // not a message file
+          }
+        }
+      }
+    }
+
+    Collections.sort(matches);
+    file_names.addAll(matches);
+  }
+
+  private static MessageType messageTypeNamed(String name) {
+  // -----------------------------------------------------------
+  // Returns message type named name (e.g. MORSE, morse or
+  // _MORSE). Throws IllegalArgumentException if no such type.
+  // -----------------------------------------------------------
+    String type_name = name.toUpperCase();
+
+    if(type_name.startsWith("_"))
+      type_name = type_name.substring(1);
+
+    try {
+      return MessageType.valueOf(type_name);
+    }
+    catch(IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+        "INVALID MESSAGE TYPE: " + name +
+        " (ENGLISH, MORSE, MORSECOMPACT, BINARY or BINPACKED " +
+        "expected)");
+    }
+  }
+
+  private static MessageType[] messageTypesNamed(String names) {
+  // -----------------------------------------------------------
+  // Returns message types named by comma-separated names (e.g.
+  // MORSE,BINARY), each named only once.
+  // -----------------------------------------------------------
+    ArrayList<MessageType> types = new ArrayList<MessageType>();
+
+    for(String name : names.split(",")) {
+      MessageType type = messageTypeNamed(name.trim());
+
+      if(!types.contains(type))
+        types.add(type);
+    }
+
+    if(types.isEmpty())
+      throw new IllegalArgumentException("MISSING --to <type>");
+
+    return types.toArray(new MessageType[types.size()]);
+  }
+
+  private static ExecutorService newBatchExecutor(int max_threads) {
+  // -----------------------------------------------------------
+  // Returns an executor that runs each task on a new virtual
+  // thread if the JVM has them (Java 21+), otherwise a pool of
+  // max_threads platform threads.
+  // -----------------------------------------------------------
+    try {
+      Method virtual_executor = Executors.class.getMethod(
+                              "newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) virtual_executor.invoke(null);
+    }
+    catch(ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(max_threads);
+    }
+  }
+
+  private static long elapsedMillis(long start) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+
+  private static void translateCurrentFile(MessageType output_type)
+        throws FileNotFoundException, InvalidCharFoundException,
+                                      IOException {
+  // -----------------------------------------------------------
+  // Translates currently open message file to output_type and
+  // writes to file <current_file_name><output_type>.txt.
+  // Files of PARALLEL_FILE_SIZE bytes or more are translated
+  // in chunks on all cores. Translations are taken from (and
+  // kept in) the translation cache.
+  // -----------------------------------------------------------
+
     // Check that file open
     if(current_file_name.equals(""))
       System.out.println(
-        "* NO FILE CURRENTLY OPENED TO TRANSLATE *\n");
+        "* NO FILE CURRENTLY OPEN TO TRANSLATE *\n");
     else {
-     
-      // Construct InputMessage Object (for current_file_name)
-      createInputMessage(); 
+      String input_file_name = current_file_name + ".txt";
+      String output_file_name =
+          current_file_name + output_type.getFileType() + ".txt";
+      MessageType input_type =
+          MessageType.forFileType(fileType(current_file_name));
+      String cache_key = cacheKey(current_file_name, output_type);
+
+      // Translated before?
+      if(cache_key != null && cache.fetch(cache_key, output_file_name))
+        return;
+
+      // Hash input as it is translated (to keep the translation)
+      MessageDigest input_digest =
+          openCache() != null ? cache.newInputDigest() : null;
 
-      // Construct OutputMessage
-      OutputEnglishMessage output_message = 
-        new OutputEnglishMessage(
-          new PrintWriter(current_file_name + "_ENGLISH" + ".txt"));
+      AsyncFileWriter output = new AsyncFileWriter(output_file_name);
 
-      // Construct Translator object
-      Translator translator = 
-        new Translator(input_message, output_message);
+      // Translate (discarding the output if it fails)
+      try {
+        if(new File(input_file_name).length() >= PARALLEL_FILE_SIZE) {
+
+          // Construct and begin parallel translation
+          ParallelTranslator translator = new ParallelTranslator(
+            input_file_name, input_type, output, output_type);
+
+          translator.setInputDigest(input_digest);
+          translator.translate();
+        }
+        else {
+
+          // Construct InputMessage Object (for current_file_name)
+          createInputMessage();
+          input_file.setDigest(input_digest);
+
+          // Construct OutputMessage
+          OutputMessage output_message = 
+                                  output_type.createOutputMessage(output);
+
+          // Construct Translator object
+          Translator translator = 
+            new Translator(input_message, output_message);
+
+          // Begin translation
+          translator.translate();
+          input_file.setDigest(null);
+        }
+      }
+      catch(IOException | RuntimeException | Error e) {
+        discardAfterFailure(new AsyncFileWriter[] {output},
+                            new String[] {output_file_name}, e);
+        throw e;
+      }
 
-      // Begin translation
-      translator.translate();
+      if(input_digest != null)
+        cache.store(cache.keyFor(input_digest.digest(), input_type,
+                                 output_type),
+                    input_file_name, output_file_name);
     }
   }
 
-  // Private Methods
+  private static void discardAfterFailure(AsyncFileWriter[] outputs,
+                                          String[] output_file_names,
+                                          Throwable failure) {
+  // -----------------------------------------------------------
+  // Closes outputs of a failed translation without writing what
+  // they still buffer (those the translator has not closed
+  // already), then deletes their files, so no partial
+  // translation is left to be taken for a complete one. Errors
+  // doing so are added to failure (as suppressed exceptions).
+  // -----------------------------------------------------------
+    for(int i = 0; i < outputs.length; i++) {
+      if(outputs[i] == null)
+        continue;
+
+      try {
+        outputs[i].abort();
+        Files.deleteIfExists(Paths.get(output_file_names[i]));
+      }
+      catch(IOException e) {
+        if(e != failure)
+          failure.addSuppressed(e);
+      }
+    }
+  }
+
+  private static TranslationCache openCache() {
+  // -----------------------------------------------------------
+  // Returns the translation cache (opened on first use), or
+  // null if it cannot be used.
+  // -----------------------------------------------------------
+    synchronized(Main.class) {
+      if(!cache_opened) {
+        cache_opened = true;
+        try {
+          cache = new TranslationCache(CACHE_DIRECTORY, CACHE_SIZE);
+        }
+        catch(IOException e) {
+          cache = null;
+        }
+      }
+      return cache;
+    }
+  }
+
+  private static String cacheKey(String file_name,
+                                 MessageType output_type) {
+  // -----------------------------------------------------------
+  // Returns key of the cached translation of <file_name>.txt to
+  // output_type, or null if none is cached (or the cache cannot
+  // be used).
+  // -----------------------------------------------------------
+    if(openCache() == null)
+      return null;
+
+    try {
+      return cache.findKey(file_name + ".txt",
+                           MessageType.forFileType(fileType(file_name)),
+                           output_type);
+    }
+    catch(IOException e) {
+      return null;
+    }
+  }
 
   private static String fileType(String file_name) throws 
                                 InvalidMessageTypeException {
@@ -363,7 +1122,13 @@ class Main {
           if(suffix.equals("_BINARY"))
             return BINARY_CODE_FILE_TYPE;
           else
-            throw new InvalidMessageTypeException();
+            if(suffix.equals("_BINPACKED"))
+              return PACKED_BINARY_FILE_TYPE;
+            else
+              if(suffix.equals("_MORSECOMPACT"))
+                return COMPACT_MORSE_FILE_TYPE;
+              else
+                throw new InvalidMessageTypeException();
     }
   }
 }
\ No newline at end of file
@@ -0,0 +1,239 @@
+package OutputMessageTypes;
+
+// Import Java API Classes
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+public class AsyncFileWriter extends Writer {
+  // -----------------------------------------------------------
+  // Writes an ASCII text file through two buffers: chars are
+  // stored (as bytes) in one buffer while the other is written
+  // to the file by a background thread, so translation only
+  // waits for the disk when it has filled a buffer before the
+  // other is written. Chars outside ASCII are written as '?'.
+  //
+  // An error writing the file is thrown (as IOException) by the
+  // next write, flush or close, which is at most a buffer later
+  // (rather than never, as by a PrintWriter). flush returns once
+  // all chars written are in the file.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  public static final int BUFFER_SIZE = 256 * 1024;
+
+  private static final ExecutorService FILE_WRITERS =
+    Executors.newCachedThreadPool(new ThreadFactory() {
+      public Thread newThread(Runnable task) {
+        Thread thread = new Thread(task, "file-writer");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+  // Instance Variables
+  private FileChannel channel;
+  private byte[] filling;            // buffer being filled
+  private int filling_length = 0;
+  private byte[] draining;           // buffer being written
+  private Future<Void> pending;      // write of draining (if any)
+  private IOException error;         // first write error (if any)
+  private boolean closed = false;
+
+  // Constructors
+  public AsyncFileWriter(String file_name) throws
+                                        FileNotFoundException {
+    this(file_name, false);
+  }
+
+  public AsyncFileWriter(String file_name, boolean append) throws
+                                        FileNotFoundException {
+  // -----------------------------------------------------------
+  // Creates (or empties, unless append) file_name to write to.
+  //
+  // Throws FileNotFoundException if file_name cannot be opened.
+  // -----------------------------------------------------------
+    channel = new FileOutputStream(file_name, append).getChannel();
+    filling = new byte[BUFFER_SIZE];
+    draining = new byte[BUFFER_SIZE];
+  }
+
+  // Writer Methods
+
+  public void write(char[] chars, int start, int length) throws
+                                                  IOException {
+  // -----------------------------------------------------------
+  // Stores chars start..start+length-1 in the buffer being
+  // filled, handing it to the background thread whenever full.
+  // -----------------------------------------------------------
+    checkOpen();
+
+    int end = start + length;
+
+    while(start < end) {
+      if(filling_length == filling.length)
+        swapBuffers();
+
+      int count = Math.min(end - start, filling.length - filling_length);
+
+      for(int i = 0; i < count; i++) {
+        char chr = chars[start + i];
+
+        if(chr < 0x80)
+          filling[filling_length + i] = (byte) chr;
+        else
+          filling[filling_length + i] = '?';
+      }
+
+      filling_length = filling_length + count;
+      start = start + count;
+    }
+  }
+
+  public void write(int chr) throws IOException {
+    checkOpen();
+
+    if(filling_length == filling.length)
+      swapBuffers();
+
+    if(chr < 0x80)
+      filling[filling_length] = (byte) chr;
+    else
+      filling[filling_length] = '?';
+
+    filling_length = filling_length + 1;
+  }
+
+  public void flush() throws IOException {
+  // -----------------------------------------------------------
+  // Writes buffered chars to the file, returning once written.
+  // -----------------------------------------------------------
+    checkOpen();
+
+    if(filling_length > 0)
+      swapBuffers();
+
+    waitForPending();
+  }
+
+  public void close() throws IOException {
+  // -----------------------------------------------------------
+  // Flushes, then closes the file (throwing the write error,
+  // if any, once closed). Closing again does nothing.
+  // -----------------------------------------------------------
+    if(closed)
+      return;
+
+    try {
+      if(error != null)
+        throw error;
+
+      flush();
+    }
+    finally {
+      closed = true;
+      channel.close();
+    }
+  }
+
+  public void abort() throws IOException {
+  // -----------------------------------------------------------
+  // Closes the file without writing the chars still buffered
+  // (once the translation being written has failed), after
+  // the background write in progress (if any) has ended.
+  // Closing or aborting again does nothing.
+  // -----------------------------------------------------------
+    if(closed)
+      return;
+
+    closed = true;
+    filling_length = 0;
+
+    try {
+      if(pending != null)
+        pending.get();
+    }
+    catch(ExecutionException e) {
+      // The file is being given up anyway
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    finally {
+      pending = null;
+      channel.close();
+    }
+  }
+
+  // Private Methods
+
+  private void swapBuffers() throws IOException {
+  // -----------------------------------------------------------
+  // Hands the buffer being filled to the background thread to
+  // write (once it has written the other) and fills the other.
+  // -----------------------------------------------------------
+    waitForPending();
+
+    byte[] full = filling;
+    final ByteBuffer bytes = ByteBuffer.wrap(full, 0, filling_length);
+
+    filling = draining;
+    filling_length = 0;
+    draining = full;
+
+    pending = FILE_WRITERS.submit(new Callable<Void>() {
+      public Void call() throws IOException {
+        while(bytes.hasRemaining())
+          channel.write(bytes);
+        return null;
+      }
+    });
+  }
+
+  private void waitForPending() throws IOException {
+  // -----------------------------------------------------------
+  // Waits for the background write (if any) to end, throwing
+  // its error if it failed.
+  // -----------------------------------------------------------
+    if(pending == null)
+      return;
+
+    try {
+      pending.get();
+      pending = null;
+    }
+    catch(ExecutionException e) {
+      pending = null;
+
+      if(e.getCause() instanceof IOException)
+        error = (IOException) e.getCause();
+      else
+        error = new IOException(e.getCause());
+
+      throw error;
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("interrupted waiting for " +
+                                       "file write");
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    if(error != null)
+      throw error;
+
+    if(closed)
+      throw new IOException("file writer closed");
+  }
+}
@@ -0,0 +1,99 @@
+package OutputMessageTypes;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+// Import Project Classes
+import CodeTables.CodeTable;
+import CodeTables.CodeTableRegistry;
+
+public class OutputCompactMorseMessage extends OutputMessage {
+  // -----------------------------------------------------------
+  // Writes a compact Morse message: each sentence on one line,
+  // with the letters of a word separated by blanks and words
+  // separated by a '/', e.g. ".... .. /-- --- .-. ... ." (rather
+  // than a line per letter and blank lines between words).
+  // -----------------------------------------------------------
+
+  // Instance Variables
+  private CodeTable morse_code;
+  private char[][] codes;            // code of each letter, by ordinal
+  private boolean letter_written = false;  // last in current word
+
+  // Constructor
+  public OutputCompactMorseMessage(Writer output) throws
+                                                IOException {
+    super(output);
+    loadCodes();
+  }
+
+  public OutputCompactMorseMessage(OutputStream output) throws
+                                                IOException {
+    super(output);
+    loadCodes();
+  }
+
+  // Protected Methods
+
+  protected String getLetterWithOrdinal(int ordinal_value) {
+  // -----------------------------------------------------------
+  // Returns Morse-encoded letter with ordinal value n.
+  // -----------------------------------------------------------
+    return morse_code.getCode(ordinal_value);
+  }
+
+  // Output Writing Methods
+
+  public int getEncoderState() {
+  // -----------------------------------------------------------
+  // Returns 1 if the last symbol written was a letter (so the
+  // next letter follows a blank), otherwise 0.
+  // -----------------------------------------------------------
+    return letter_written ? 1 : 0;
+  }
+
+  public void setEncoderState(int state) {
+    letter_written = (state == 1);
+  }
+
+  public void writeLetter(int ordinal_value) throws IOException {
+  // -----------------------------------------------------------
+  // Appends Morse-coded letter with ordinal_value to output
+  // buffer (after a blank if it follows a letter of the same
+  // word).
+  // -----------------------------------------------------------
+    if(letter_written)
+      write(' ');
+
+    write(codes[ordinal_value]);
+    letter_written = true;
+  }
+
+  public void writeEndOfWord() throws IOException {
+  // -----------------------------------------------------------
+  // Appends '/' to output buffer (for end-of-word).
+  // -----------------------------------------------------------
+    write('/');
+    letter_written = false;
+  }
+
+  public void writeEndOfSentence() throws IOException {
+  // -----------------------------------------------------------
+  // Ends current line in output buffer (for end-of-sentence).
+  // -----------------------------------------------------------
+    write('\n');
+    letter_written = false;
+  }
+
+  // Private Methods
+
+  private void loadCodes() throws IOException {
+    morse_code = CodeTableRegistry.getMorseCode();
+    codes = new char[morse_code.size()][];
+
+    for(int i = 0; i < codes.length; i++)
+      codes[i] = morse_code.getCode(i).toCharArray();
+  }
+}
@@ -1,21 +1,22 @@
 package OutputMessageTypes;
 
 // Import Java API Classes
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.io.IOException;
+import java.io.Writer;
 
 public class OutputEnglishMessage extends OutputMessage {
 
   // Symbolic Constants
   private final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
   
-  // Instance Variables
-  private String output_buffer;
-  
   // Constructor
-  public OutputEnglishMessage(PrintWriter output) {
+  public OutputEnglishMessage(Writer output) {
+    super(output);
+  }
+
+  public OutputEnglishMessage(OutputStream output) {
     super(output);
-    clearBuffer();
   }
 
   // Protected Methods
@@ -29,39 +30,28 @@ public class OutputEnglishMessage extends OutputMessage {
   }
 
   // Output Writing Methods
-  public void writeLetter(int ordinal_value) {
+  public void writeLetter(int ordinal_value) throws IOException {
   // -----------------------------------------------------------
   // Appends letter with ordinal_value to output buffer.
   // -----------------------------------------------------------
-    output_buffer = output_buffer + 
-                      getLetterWithOrdinal(ordinal_value);
+    write(ALPHABET.charAt(ordinal_value));
   }
   
-  public void writeEndOfWord() {
+  public void writeEndOfWord() throws IOException {
   // -----------------------------------------------------------
   // Appends blank char to output buffer.
   // -----------------------------------------------------------
-    final String blank_char = " ";
-    output_buffer = output_buffer + blank_char;
+    final char blank_char = ' ';
+    write(blank_char);
   }
   
   public void writeEndOfSentence() throws IOException {
   // -----------------------------------------------------------
-  // Writes contents of output buffer to currently open output
-  // file as a line of text. Also clears line buffer.
-  // -----------------------------------------------------------
-    writeLine(output_buffer);
-    clearBuffer();
-  }
-
-  // Private Methods
-
-  private void clearBuffer() {
-  // -----------------------------------------------------------
-  // Clears line buffer by setting to empty string.
+  // Ends current line of text in output buffer. (The buffer is
+  // written to the output file whenever it fills, so a long
+  // sentence is never held in memory as a whole.)
   // -----------------------------------------------------------
-    final String empty_string = "";
-    output_buffer = empty_string;
+    write('\n');
   }
 
 }
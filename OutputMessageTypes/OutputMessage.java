@@ -1,32 +1,207 @@
 package OutputMessageTypes;
 
 // Import Java API Classes
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 public abstract class OutputMessage {
-  private PrintWriter output;
 
-  public OutputMessage(PrintWriter output) {
+  // Symbolic Constants
+  private static final int FLUSH_THRESHOLD = 8192;
+  private static final int TIMED_WRITE_LENGTH = 1024;
+
+  private Writer output;
+  private char[] output_buffer = new char[FLUSH_THRESHOLD];
+  private int buffer_length = 0;
+  private long chars_written = 0;
+  private long write_nanos = 0;
+
+  public OutputMessage(Writer output) {
+  // -----------------------------------------------------------
+  // Writes to output. Errors writing to output are thrown (as
+  // IOException) by the write that meets them, or by flush or
+  // close, except for a PrintWriter, which never reports them.
+  // -----------------------------------------------------------
     this.output = output;
   }
 
+  public OutputMessage(OutputStream output) {
+  // -----------------------------------------------------------
+  // Writes to a byte stream (such as standard output or a
+  // socket). Output messages are plain ASCII.
+  // -----------------------------------------------------------
+    this(new OutputStreamWriter(output, StandardCharsets.US_ASCII));
+  }
+
   public void writeLine(String line) throws IOException {
   // -----------------------------------------------------------
   // Writes provided line of text to output file.
   // Throws IOException if output file closed.
   // -----------------------------------------------------------
-    output.write(line + "\n");
+    write(line);
+    write('\n');
   }
   
+  public long getCharsWritten() {
+  // -----------------------------------------------------------
+  // Returns number of chars written to the output file so far
+  // (not counting chars still in the output buffer).
+  // -----------------------------------------------------------
+    return chars_written;
+  }
+
+  public long getWriteNanos() {
+  // -----------------------------------------------------------
+  // Returns time spent writing to the output file so far, in
+  // nanoseconds (buffering chars is not included).
+  // -----------------------------------------------------------
+    return write_nanos;
+  }
+
+  public int getEncoderState() {
+  // -----------------------------------------------------------
+  // Returns the writing state carried from one symbol of the
+  // message to the next (0 if none), so that writing can be
+  // resumed by a new message of the same type appending to the
+  // same output (see setEncoderState).
+  // -----------------------------------------------------------
+    return 0;
+  }
+
+  public void setEncoderState(int state) {
+  // -----------------------------------------------------------
+  // Restores writing state returned by getEncoderState (0 to
+  // start a new message, e.g. when the output message is reused
+  // for another translation).
+  // -----------------------------------------------------------
+  }
+
+  public void flush() throws IOException {
+  // -----------------------------------------------------------
+  // Writes buffered output to the output file, leaving it open.
+  // -----------------------------------------------------------
+    flushBuffer();
+    output.flush();
+  }
+
   public void close() throws IOException {
   // -----------------------------------------------------------
   // Flushes and closes currently open output file.
   // -----------------------------------------------------------
+      flushBuffer();
       output.flush();
       output.close();
   }
 
+  public void abort() throws IOException {
+  // -----------------------------------------------------------
+  // Closes currently open output file without writing the
+  // buffered output (once a translation has failed, so its
+  // output is to be discarded).
+  // -----------------------------------------------------------
+    buffer_length = 0;
+
+    if(output instanceof AsyncFileWriter)
+      ((AsyncFileWriter) output).abort();
+    else
+      output.close();
+  }
+
+  // Protected Methods
+
+  protected void write(char chr) throws IOException {
+  // -----------------------------------------------------------
+  // Appends chr to the output buffer, writing the buffer to the
+  // output file once it reaches FLUSH_THRESHOLD chars.
+  // -----------------------------------------------------------
+    if(buffer_length == output_buffer.length)
+      flushBuffer();
+
+    output_buffer[buffer_length] = chr;
+    buffer_length = buffer_length + 1;
+  }
+
+  protected void write(char[] chars) throws IOException {
+  // -----------------------------------------------------------
+  // Appends chars to the output buffer (chars longer than the
+  // buffer are written straight to the output file).
+  // -----------------------------------------------------------
+    int length = chars.length;
+
+    if(buffer_length + length > output_buffer.length) {
+      flushBuffer();
+
+      if(length > output_buffer.length) {
+        long start = writeStartTime(length);
+        output.write(chars, 0, length);
+        recordWrite(length, start);
+        return;
+      }
+    }
+
+    System.arraycopy(chars, 0, output_buffer, buffer_length, length);
+    buffer_length = buffer_length + length;
+  }
+
+  protected void write(String str) throws IOException {
+  // -----------------------------------------------------------
+  // Appends chars of str to the output buffer (str longer than
+  // the buffer is written straight to the output file).
+  // -----------------------------------------------------------
+    int length = str.length();
+
+    if(buffer_length + length > output_buffer.length) {
+      flushBuffer();
+
+      if(length > output_buffer.length) {
+        long start = writeStartTime(length);
+        output.write(str);
+        recordWrite(length, start);
+        return;
+      }
+    }
+
+    str.getChars(0, length, output_buffer, buffer_length);
+    buffer_length = buffer_length + length;
+  }
+
+  protected void flushBuffer() throws IOException {
+  // -----------------------------------------------------------
+  // Writes contents of the output buffer to the output file
+  // and empties the (reused) buffer.
+  // -----------------------------------------------------------
+    if(buffer_length > 0) {
+      long start = writeStartTime(buffer_length);
+      output.write(output_buffer, 0, buffer_length);
+      recordWrite(buffer_length, start);
+      buffer_length = 0;
+    }
+  }
+
+  // Private Methods
+
+  private void recordWrite(int length, long start) {
+  // -----------------------------------------------------------
+  // Counts length chars written to the output file by a write
+  // that began at time start (0 if not timed).
+  // -----------------------------------------------------------
+    if(start != 0)
+      write_nanos = write_nanos + (System.nanoTime() - start);
+    chars_written = chars_written + length;
+  }
+
+  private static long writeStartTime(int length) {
+  // -----------------------------------------------------------
+  // Returns start time for a write of length chars, or 0 if
+  // the write is too short to be worth timing (reading the
+  // clock would cost more than the write itself).
+  // -----------------------------------------------------------
+    return length >= TIMED_WRITE_LENGTH ? System.nanoTime() : 0;
+  }
+
   // Abstract Methods
 
   protected abstract String getLetterWithOrdinal(int ordinal_value);
@@ -0,0 +1,91 @@
+package OutputMessageTypes;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+// Import Project Classes
+import CodeTables.BinaryCodeIndex;
+import CodeTables.CodeTable;
+import CodeTables.CodeTableRegistry;
+
+public class OutputPackedBinaryMessage extends OutputMessage {
+  // -----------------------------------------------------------
+  // Writes a packed binary message: each letter as the single
+  // byte of its 8-bit Binary code (rather than eight '0' and
+  // '1' chars and a line end), a blank between words and a
+  // line end after each sentence, so it takes about a ninth of
+  // the space of a Binary message.
+  // -----------------------------------------------------------
+
+  // Instance Variables
+  private CodeTable binary_code;
+  private char[] packed_codes;  // code of each letter, by ordinal
+
+  // Constructor
+  public OutputPackedBinaryMessage(Writer output) throws
+                                                IOException {
+    super(output);
+    loadCodes();
+  }
+
+  public OutputPackedBinaryMessage(OutputStream output) throws
+                                                IOException {
+    super(output);
+    loadCodes();
+  }
+
+  // Protected Methods
+
+  protected String getLetterWithOrdinal(int ordinal_value) {
+  // -----------------------------------------------------------
+  // Returns packed letter with ordinal value n.
+  // -----------------------------------------------------------
+    return Character.toString(packed_codes[ordinal_value]);
+  }
+
+  // Output Writing Methods
+  public void writeLetter(int ordinal_value) throws IOException {
+  // -----------------------------------------------------------
+  // Appends code byte of letter with ordinal_value to output
+  // buffer.
+  // -----------------------------------------------------------
+    write(packed_codes[ordinal_value]);
+  }
+
+  public void writeEndOfWord() throws IOException {
+  // -----------------------------------------------------------
+  // Appends blank char to output buffer.
+  // -----------------------------------------------------------
+    write(' ');
+  }
+
+  public void writeEndOfSentence() throws IOException {
+  // -----------------------------------------------------------
+  // Ends current line in output buffer.
+  // -----------------------------------------------------------
+    write('\n');
+  }
+
+  // Private Methods
+
+  private void loadCodes() throws IOException {
+  // -----------------------------------------------------------
+  // Looks up the 8-bit code of each letter in the Binary code
+  // table. Throws IOException if the table has codes that
+  // cannot be packed (see BinaryCodeIndex.isPackable).
+  // -----------------------------------------------------------
+    binary_code = CodeTableRegistry.getBinaryCode();
+
+    if(!CodeTableRegistry.getBinaryCodeIndex().isPackable())
+      throw new IOException("binary codes cannot be packed " +
+                            "(ASCII codes other than blank or " +
+                            "line end expected)");
+
+    packed_codes = new char[binary_code.size()];
+
+    for(int i = 0; i < packed_codes.length; i++)
+      packed_codes[i] = (char) BinaryCodeIndex.toCode(binary_code.getCode(i));
+  }
+}
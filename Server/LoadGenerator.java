@@ -0,0 +1,228 @@
+package Server;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+// Import Project Classes
+import Translator.MessageType;
+import Translator.Translator;
+
+public class LoadGenerator {
+  // -----------------------------------------------------------
+  // Measures the throughput and latency of a TranslationServer.
+  // Each connection runs on its own thread, sending a request
+  // as soon as the last one is answered; the latency of every
+  // request is recorded, after a warmup, and reported as
+  // requests per second and latency percentiles.
+  //
+  // Usage (from the project directory, so Data/ is found):
+  //   java Server.LoadGenerator [--host h] [--port n]
+  //        [--connections n] [--seconds n] [--warmup n]
+  //        [--from type] [--to type] [--letters n]
+  //
+  // The message sent is random English text of --letters
+  // letters (100 by default), translated to the --from type.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+  private static final int WORD_LENGTH = 5;
+  private static final int WORDS_PER_SENTENCE = 10;
+
+  // Load Settings
+  private static String host = "localhost";
+  private static int port = TranslationServer.DEFAULT_PORT;
+  private static int connections = 8;
+  private static int seconds = 10;
+  private static int warmup_seconds = 2;
+  private static MessageType from = MessageType.ENGLISH;
+  private static MessageType to = MessageType.MORSE;
+  private static int letters = 100;
+
+  public static void main(String[] args) throws Exception {
+    readArguments(args);
+
+    byte[] message = sampleMessage();
+    LoadThread[] threads = new LoadThread[connections];
+    long start = System.nanoTime();
+    long measure_start = start + warmup_seconds * 1000000000L;
+    long end = measure_start + seconds * 1000000000L;
+
+    for(int i = 0; i < connections; i++) {
+      threads[i] = new LoadThread(message, measure_start, end);
+      threads[i].start();
+    }
+
+    // Merge latencies of every connection
+    long[] latencies = new long[0];
+    long errors = 0;
+
+    for(LoadThread thread : threads) {
+      thread.join();
+
+      if(thread.failure != null) {
+        System.out.println("* CONNECTION FAILED: " + thread.failure + " *");
+        System.exit(1);
+      }
+
+      int merged = latencies.length;
+      latencies = Arrays.copyOf(latencies, merged + thread.count);
+      System.arraycopy(thread.latencies, 0, latencies, merged,
+                       thread.count);
+      errors = errors + thread.errors;
+    }
+
+    Arrays.sort(latencies);
+
+    System.out.printf("%s -> %s, %d bytes per request, %d connections%n",
+                      from, to, message.length, connections);
+    System.out.printf("requests %d (%d errors) in %d s: %.0f requests/s%n",
+                      latencies.length, errors, seconds,
+                      latencies.length / (double) seconds);
+    System.out.printf("latency us: p50 %.1f  p90 %.1f  p99 %.1f  " +
+                      "p99.9 %.1f  max %.1f%n",
+                      percentile(latencies, 0.50),
+                      percentile(latencies, 0.90),
+                      percentile(latencies, 0.99),
+                      percentile(latencies, 0.999),
+                      percentile(latencies, 1.0));
+  }
+
+  // Load Thread
+
+  private static class LoadThread extends Thread {
+    // ---------------------------------------------------------
+    // Sends message over one connection until end, recording
+    // the latency (in ns) of the requests sent after
+    // measure_start.
+    // ---------------------------------------------------------
+    private byte[] message;
+    private long measure_start;
+    private long end;
+    private long[] latencies = new long[1024];
+    private int count = 0;
+    private long errors = 0;
+    private Exception failure;
+
+    LoadThread(byte[] message, long measure_start, long end) {
+      this.message = message;
+      this.measure_start = measure_start;
+      this.end = end;
+    }
+
+    public void run() {
+      try {
+        TranslationClient client = new TranslationClient(host, port);
+
+        try {
+          long now = System.nanoTime();
+
+          while(now < end) {
+            long sent = now;
+
+            try {
+              client.translate(message, from, to);
+            }
+            catch(RuntimeException e) {
+              errors = errors + 1;
+            }
+
+            now = System.nanoTime();
+
+            if(sent >= measure_start)
+              record(now - sent);
+          }
+        }
+        finally {
+          client.close();
+        }
+      }
+      catch(IOException e) {
+        failure = e;
+      }
+    }
+
+    private void record(long latency) {
+      if(count == latencies.length)
+        latencies = Arrays.copyOf(latencies, 2 * count);
+
+      latencies[count] = latency;
+      count = count + 1;
+    }
+  }
+
+  // Private Methods
+
+  private static byte[] sampleMessage() throws IOException {
+  // -----------------------------------------------------------
+  // Returns random English text of letters letters, translated
+  // to type from.
+  // -----------------------------------------------------------
+    Random random = new Random(42);
+    StringBuilder text = new StringBuilder();
+
+    for(int i = 0; i < letters; i++) {
+      if(i > 0 && i % WORD_LENGTH == 0)
+        if(i % (WORD_LENGTH * WORDS_PER_SENTENCE) == 0)
+          text.append('\n');
+        else
+          text.append(' ');
+
+      text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+    }
+
+    text.append('\n');
+
+    byte[] english = text.toString().getBytes(StandardCharsets.US_ASCII);
+
+    if(from == MessageType.ENGLISH)
+      return english;
+    else
+      return Translator.translate(english, MessageType.ENGLISH, from);
+  }
+
+  private static double percentile(long[] sorted, double fraction) {
+  // -----------------------------------------------------------
+  // Returns latency (in us) at fraction of sorted latencies.
+  // -----------------------------------------------------------
+    if(sorted.length == 0)
+      return 0;
+
+    int index = (int) Math.ceil(fraction * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1000.0;
+  }
+
+  private static void readArguments(String[] args) {
+    for(int i = 0; i < args.length; i++) {
+      if(args[i].equals("--host"))
+        host = args[++i];
+      else
+        if(args[i].equals("--port"))
+          port = Integer.parseInt(args[++i]);
+        else
+          if(args[i].equals("--connections"))
+            connections = Integer.parseInt(args[++i]);
+          else
+            if(args[i].equals("--seconds"))
+              seconds = Integer.parseInt(args[++i]);
+            else
+              if(args[i].equals("--warmup"))
+                warmup_seconds = Integer.parseInt(args[++i]);
+              else
+                if(args[i].equals("--from"))
+                  from = MessageType.valueOf(args[++i].toUpperCase());
+                else
+                  if(args[i].equals("--to"))
+                    to = MessageType.valueOf(args[++i].toUpperCase());
+                  else
+                    if(args[i].equals("--letters"))
+                      letters = Integer.parseInt(args[++i]);
+                    else
+                      throw new IllegalArgumentException(
+                                      "unknown option: " + args[i]);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package Server;
+
+// Import Java API Classes
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+// Import Project Classes
+import Exceptions.InvalidBinaryCodeFoundException;
+import Exceptions.InvalidCharFoundException;
+import Translator.MessageType;
+
+public class TranslationClient {
+  // -----------------------------------------------------------
+  // Connection to a TranslationServer, translating one message
+  // at a time (blocking until its translation is received).
+  // Not thread-safe: each thread should have its own client.
+  // -----------------------------------------------------------
+
+  // Instance Variables
+  private SocketChannel channel;
+  private ByteBuffer length_buffer = ByteBuffer.allocate(4);
+
+  // Constructor
+  public TranslationClient(String host, int port) throws
+                                                IOException {
+    channel = SocketChannel.open(new InetSocketAddress(host, port));
+    channel.socket().setTcpNoDelay(true);
+  }
+
+  // Translate Methods
+
+  public byte[] translate(byte[] message, MessageType from,
+                          MessageType to) throws IOException {
+  // -----------------------------------------------------------
+  // Returns message (ASCII bytes of type from) translated by
+  // the server to type to, as ASCII bytes.
+  //
+  // Throws InvalidCharFoundException (or
+  // InvalidBinaryCodeFoundException) for an invalid message.
+  // Throws IOException if the server failed or cannot be
+  // reached.
+  // -----------------------------------------------------------
+    ByteBuffer request = TranslationProtocol.request(from, to, message);
+
+    while(request.hasRemaining())
+      channel.write(request);
+
+    // Read response
+    length_buffer.clear();
+    readFully(length_buffer);
+
+    int length = length_buffer.getInt(0);
+
+    if(length < 1 || length > TranslationProtocol.MAX_FRAME_SIZE + 1)
+      throw new IOException("invalid response length: " + length);
+
+    ByteBuffer response = ByteBuffer.allocate(length);
+    readFully(response);
+
+    byte status = response.get(0);
+    byte[] body = new byte[length - 1];
+    response.position(1);
+    response.get(body);
+
+    if(status == TranslationProtocol.OK)
+      return body;
+
+    String error = new String(body, StandardCharsets.US_ASCII);
+
+    if(status == TranslationProtocol.INVALID_CHAR)
+      throw new InvalidCharFoundException(error);
+    else
+      if(status == TranslationProtocol.INVALID_BINARY_CODE)
+        throw new InvalidBinaryCodeFoundException(error);
+      else
+        throw new IOException("server error (status " + status +
+                              "): " + error);
+  }
+
+  public String translate(String message, MessageType from,
+                          MessageType to) throws IOException {
+    return new String(translate(
+        message.getBytes(StandardCharsets.US_ASCII), from, to),
+        StandardCharsets.US_ASCII);
+  }
+
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  // Private Methods
+
+  private void readFully(ByteBuffer buffer) throws IOException {
+    while(buffer.hasRemaining())
+      if(channel.read(buffer) < 0)
+        throw new EOFException("connection closed by server");
+  }
+}
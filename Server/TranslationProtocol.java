@@ -0,0 +1,76 @@
+package Server;
+
+// Import Java API Classes
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Import Project Classes
+import Translator.MessageType;
+
+public class TranslationProtocol {
+  // -----------------------------------------------------------
+  // Frames exchanged with a TranslationServer. Every frame is a
+  // 4-byte (big-endian) length followed by that many bytes.
+  //
+  // A request names its direction on a first line, then holds
+  // the message to translate (ASCII bytes), e.g.
+  //
+  //   ENGLISH MORSE\n
+  //   HELLO WORLD
+  //
+  // A response is a status byte followed by the translation
+  // (status OK) or by the error message, e.g. the invalid char
+  // found (any other status). A connection may send any number
+  // of requests; they are answered in the order sent.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  public static final int MAX_FRAME_SIZE = 1 << 20;
+  public static final int MAX_HEADER_SIZE = 64;
+
+  // Response Statuses
+  public static final byte OK = 0;
+  public static final byte INVALID_CHAR = 1;
+  public static final byte INVALID_BINARY_CODE = 2;
+  public static final byte BAD_REQUEST = 3;
+  public static final byte SERVER_ERROR = 4;
+
+  private TranslationProtocol() {
+  }
+
+  public static ByteBuffer request(MessageType from, MessageType to,
+                                   byte[] message) {
+  // -----------------------------------------------------------
+  // Returns request frame translating message (ASCII bytes of
+  // type from) to type to, ready to be written.
+  // -----------------------------------------------------------
+    byte[] header = (from.name() + " " + to.name() + "\n")
+                                  .getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer frame = ByteBuffer.allocate(4 + header.length +
+                                           message.length);
+
+    frame.putInt(header.length + message.length);
+    frame.put(header);
+    frame.put(message);
+    frame.flip();
+    return frame;
+  }
+
+  public static ByteBuffer response(byte status, byte[] body) {
+  // -----------------------------------------------------------
+  // Returns response frame of status and body (translation or
+  // error message), ready to be written.
+  // -----------------------------------------------------------
+    ByteBuffer frame = ByteBuffer.allocate(4 + 1 + body.length);
+
+    frame.putInt(1 + body.length);
+    frame.put(status);
+    frame.put(body);
+    frame.flip();
+    return frame;
+  }
+
+  public static ByteBuffer response(byte status, String message) {
+    return response(status, message.getBytes(StandardCharsets.US_ASCII));
+  }
+}
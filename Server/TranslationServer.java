@@ -0,0 +1,397 @@
+package Server;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Import Project Classes
+import CodeTables.CodeTableRegistry;
+import Exceptions.InvalidBinaryCodeFoundException;
+import Exceptions.InvalidCharFoundException;
+import Translator.MessageType;
+import Translator.Translator;
+
+public class TranslationServer {
+  // -----------------------------------------------------------
+  // Translates messages sent over TCP (see TranslationProtocol)
+  // on a local port, so a program translating many short
+  // messages pays for starting a JVM and loading the code
+  // tables only once.
+  //
+  // One thread runs a non-blocking (NIO selector) event loop,
+  // accepting connections and reading and writing frames for
+  // every client; translations are handed to a pool of worker
+  // threads, so clients are served concurrently. The code
+  // tables are loaded once and shared by all workers, and each
+  // worker reuses its own buffers (see Translator.translate).
+  //
+  // A connection's requests are translated one at a time, in
+  // order: it is not read from while its request is being
+  // translated or its response written, so a client sending
+  // faster than it reads its responses is held back by TCP.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  public static final int DEFAULT_PORT = 7237;
+  private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+  // Instance Variables
+  private Selector selector;
+  private ServerSocketChannel server_channel;
+  private ExecutorService workers;
+  private ConcurrentLinkedQueue<Connection> translated =
+                              new ConcurrentLinkedQueue<Connection>();
+  private volatile boolean closed = false;
+
+  // Constructor
+  public TranslationServer(int port, int worker_count) throws
+                                                  IOException {
+  // -----------------------------------------------------------
+  // Listens on port (0 for any free port) of the loopback
+  // address, translating with worker_count threads. Loads the
+  // code tables, so a bad table is reported before serving.
+  // -----------------------------------------------------------
+    CodeTableRegistry.getMorseCode();
+    CodeTableRegistry.getBinaryCode();
+
+    selector = Selector.open();
+    server_channel = ServerSocketChannel.open();
+    server_channel.bind(new InetSocketAddress(
+                            InetAddress.getLoopbackAddress(), port));
+    server_channel.configureBlocking(false);
+    server_channel.register(selector, SelectionKey.OP_ACCEPT);
+
+    workers = Executors.newFixedThreadPool(worker_count,
+                                           new ThreadFactory() {
+      public Thread newThread(Runnable task) {
+        Thread thread = new Thread(task, "translation-worker");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  // Serve Methods
+
+  public int getPort() {
+  // -----------------------------------------------------------
+  // Returns port listened on.
+  // -----------------------------------------------------------
+    return server_channel.socket().getLocalPort();
+  }
+
+  public void serve() throws IOException {
+  // -----------------------------------------------------------
+  // Runs the event loop in the calling thread until close is
+  // called (from another thread), then closes every connection.
+  // -----------------------------------------------------------
+    try {
+      while(!closed) {
+        selector.select();
+
+        // Write responses translated since last select
+        Connection connection;
+
+        while((connection = translated.poll()) != null)
+          if(connection.isOpen())
+            try {
+              connection.writeResponse();
+            }
+            catch(IOException e) {
+              connection.close();
+            }
+
+        // Handle ready connections
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+
+        while(keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+
+          if(!key.isValid())
+            continue;
+
+          if(key.isAcceptable())
+            accept();
+          else {
+            connection = (Connection) key.attachment();
+
+            try {
+              if(key.isReadable())
+                connection.read();
+
+              if(key.isValid() && key.isWritable())
+                connection.write();
+            }
+            catch(IOException e) {
+              connection.close();
+            }
+          }
+        }
+      }
+    }
+    finally {
+      for(SelectionKey key : selector.keys())
+        if(key.attachment() != null)
+          ((Connection) key.attachment()).close();
+
+      workers.shutdownNow();
+      server_channel.close();
+      selector.close();
+    }
+  }
+
+  public void close() {
+  // -----------------------------------------------------------
+  // Stops the event loop (serve returns once it has closed the
+  // connections).
+  // -----------------------------------------------------------
+    closed = true;
+    selector.wakeup();
+  }
+
+  // Private Methods
+
+  private void accept() {
+  // -----------------------------------------------------------
+  // Accepts a waiting connection (if any), reading from it.
+  // -----------------------------------------------------------
+    try {
+      SocketChannel channel = server_channel.accept();
+
+      if(channel == null)
+        return;
+
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);
+
+      Connection connection = new Connection(channel);
+      connection.key = channel.register(selector, SelectionKey.OP_READ,
+                                        connection);
+    }
+    catch(IOException e) {
+      // Connection dropped before accepted: nothing to serve
+    }
+  }
+
+  private static ByteBuffer translate(byte[] request) {
+  // -----------------------------------------------------------
+  // Returns response frame to request (a request frame without
+  // its length).
+  // -----------------------------------------------------------
+    int header_end = 0;
+
+    while(header_end < request.length &&
+          header_end < TranslationProtocol.MAX_HEADER_SIZE &&
+          request[header_end] != '\n')
+      header_end = header_end + 1;
+
+    if(header_end == request.length || request[header_end] != '\n')
+      return TranslationProtocol.response(
+                TranslationProtocol.BAD_REQUEST, "header line expected");
+
+    String[] types = new String(request, 0, header_end,
+                                StandardCharsets.US_ASCII).split(" ");
+    MessageType from;
+    MessageType to;
+
+    try {
+      if(types.length != 2)
+        throw new IllegalArgumentException();
+
+      from = MessageType.valueOf(types[0]);
+      to = MessageType.valueOf(types[1]);
+    }
+    catch(IllegalArgumentException e) {
+      return TranslationProtocol.response(
+                TranslationProtocol.BAD_REQUEST,
+                "<FROM> <TO> message types expected");
+    }
+
+    try {
+      byte[] message = Arrays.copyOfRange(request, header_end + 1,
+                                          request.length);
+
+      return TranslationProtocol.response(TranslationProtocol.OK,
+                          Translator.translate(message, from, to));
+    }
+    catch(InvalidCharFoundException e) {
+      return TranslationProtocol.response(
+                TranslationProtocol.INVALID_CHAR, e.getMessage());
+    }
+    catch(InvalidBinaryCodeFoundException e) {
+      return TranslationProtocol.response(
+                TranslationProtocol.INVALID_BINARY_CODE, e.getMessage());
+    }
+    catch(IOException | RuntimeException e) {
+      return TranslationProtocol.response(
+                TranslationProtocol.SERVER_ERROR, e.toString());
+    }
+  }
+
+  // Client Connection
+
+  private class Connection {
+    // ---------------------------------------------------------
+    // A client connection. Bytes read are kept in input until
+    // they make up a whole request; while a request is being
+    // translated (busy), the connection is not read from.
+    // Its state is touched only by the event loop thread,
+    // except response, which a worker sets.
+    // ---------------------------------------------------------
+    private SocketChannel channel;
+    private SelectionKey key;
+    private ByteBuffer input = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private ByteBuffer output;
+    private volatile ByteBuffer response;
+    private boolean busy = false;
+    private boolean end_of_input = false;
+    private boolean closing = false;   // close once output written
+
+    Connection(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    void read() throws IOException {
+    // -------------------------------------------------------
+    // Reads what the client sent, then starts translating its
+    // next request if whole.
+    // -------------------------------------------------------
+      if(channel.read(input) < 0)
+        end_of_input = true;
+
+      startNextRequest();
+    }
+
+    void writeResponse() throws IOException {
+    // -------------------------------------------------------
+    // Writes response translated by a worker.
+    // -------------------------------------------------------
+      output = response;
+      response = null;
+      write();
+    }
+
+    void write() throws IOException {
+    // -------------------------------------------------------
+    // Writes what it can of output; once all written, starts
+    // the next request (or closes, if closing).
+    // -------------------------------------------------------
+      channel.write(output);
+
+      if(output.hasRemaining()) {
+        key.interestOps(SelectionKey.OP_WRITE);
+        return;
+      }
+
+      output = null;
+      busy = false;
+
+      if(closing)
+        close();
+      else
+        startNextRequest();
+    }
+
+    void close() {
+      key.cancel();
+
+      try {
+        channel.close();
+      }
+      catch(IOException e) {
+        // Nothing more to do with the connection
+      }
+    }
+
+    private void startNextRequest() throws IOException {
+    // -------------------------------------------------------
+    // Hands the next request in input (if whole) to a worker;
+    // otherwise reads on (or closes, at end of input).
+    // -------------------------------------------------------
+      if(busy)
+        return;
+
+      int length = -1;
+
+      if(input.position() >= 4) {
+        length = input.getInt(0);
+
+        if(length < 0 || length > TranslationProtocol.MAX_FRAME_SIZE) {
+          respondAndClose(TranslationProtocol.response(
+                TranslationProtocol.BAD_REQUEST, "frame longer than " +
+                TranslationProtocol.MAX_FRAME_SIZE + " bytes"));
+          return;
+        }
+      }
+
+      // Request not yet whole?
+      if(length < 0 || input.position() < 4 + length) {
+        if(end_of_input) {
+          close();
+          return;
+        }
+
+        if(length >= 0 && input.capacity() < 4 + length) {
+          ByteBuffer bigger = ByteBuffer.allocate(4 + length);
+          input.flip();
+          bigger.put(input);
+          input = bigger;
+        }
+
+        key.interestOps(SelectionKey.OP_READ);
+        return;
+      }
+
+      // Take request out of input
+      final byte[] request = new byte[length];
+      input.flip();
+      input.position(4);
+      input.get(request);
+      input.compact();
+
+      if(input.capacity() > READ_BUFFER_SIZE &&
+         input.position() <= READ_BUFFER_SIZE) {
+        ByteBuffer smaller = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        input.flip();
+        smaller.put(input);
+        input = smaller;
+      }
+
+      busy = true;
+      key.interestOps(0);
+
+      workers.execute(new Runnable() {
+        public void run() {
+          response = translate(request);
+          translated.add(Connection.this);
+          selector.wakeup();
+        }
+      });
+    }
+
+    private void respondAndClose(ByteBuffer frame) throws IOException {
+      busy = true;
+      closing = true;
+      output = frame;
+      write();
+    }
+  }
+}
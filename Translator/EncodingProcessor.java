@@ -0,0 +1,231 @@
+package Translator;
+
+// Import Java API Classes
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.util.concurrent.Flow;
+
+// Import Project Classes
+import InputMessageTypes.InputMessage;
+import OutputMessageTypes.OutputMessage;
+
+public class EncodingProcessor implements Flow.Processor<int[], String> {
+  // -----------------------------------------------------------
+  // Encodes the batches of symbols of a SymbolPublisher as a
+  // message type, publishing the text of each batch (e.g. the
+  // Morse code of its letters). Concatenated, the texts are
+  // the translation a Translator would write to a file.
+  //
+  // Demand is passed straight upstream, one batch for one
+  // text, so the processor buffers nothing: the subscriber's
+  // requests decide how fast the input message is read.
+  // There can be only one subscriber.
+  // -----------------------------------------------------------
+
+  // Instance Variables
+  private CharArrayWriter encoded = new CharArrayWriter();
+  private OutputMessage output_message;
+  private Flow.Subscription upstream;
+  private Flow.Subscriber<? super String> downstream;
+  private long pending_demand = 0;     // requested before upstream
+  private boolean request_invalid = false;
+  private boolean cancelled = false;
+  private volatile boolean done = false;
+  private Throwable upstream_error;    // ended before downstream
+
+  // Constructor
+  public EncodingProcessor(MessageType output_type) throws
+                                                IOException {
+  // -----------------------------------------------------------
+  // Encodes as output_type. Throws IOException if its code
+  // table cannot be loaded.
+  // -----------------------------------------------------------
+    output_message = output_type.createOutputMessage(encoded);
+  }
+
+  // Publisher Methods
+
+  public void subscribe(Flow.Subscriber<? super String> subscriber) {
+    if(subscriber == null)
+      throw new NullPointerException("subscriber");
+
+    boolean ended;
+    Throwable error;
+
+    synchronized(this) {
+      if(downstream != null) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+          public void request(long count) {
+          }
+
+          public void cancel() {
+          }
+        });
+        subscriber.onError(new IllegalStateException(
+                                "encoding already subscribed to"));
+        return;
+      }
+
+      downstream = subscriber;
+      ended = done;
+      error = upstream_error;
+    }
+
+    subscriber.onSubscribe(new Flow.Subscription() {
+      public void request(long count) {
+        requestUpstream(count);
+      }
+
+      public void cancel() {
+        cancelUpstream();
+      }
+    });
+
+    // Upstream ended before subscribed?
+    if(ended)
+      if(error != null)
+        subscriber.onError(error);
+      else
+        subscriber.onComplete();
+  }
+
+  // Subscriber Methods
+
+  public void onSubscribe(Flow.Subscription subscription) {
+    long demand;
+    boolean invalid;
+
+    synchronized(this) {
+      if(upstream != null) {
+        subscription.cancel();
+        return;
+      }
+
+      upstream = subscription;
+      demand = pending_demand;
+      invalid = request_invalid;
+      pending_demand = 0;
+
+      if(cancelled) {
+        subscription.cancel();
+        return;
+      }
+    }
+
+    if(demand > 0)
+      subscription.request(demand);
+
+    // Non-positive request made (for upstream to signal)?
+    if(invalid)
+      subscription.request(0);
+  }
+
+  public void onNext(int[] symbols) {
+  // -----------------------------------------------------------
+  // Encodes symbols, publishing their text.
+  // -----------------------------------------------------------
+    if(done)
+      return;
+
+    try {
+      for(int i = 0; i < symbols.length; i++) {
+        int current_symbol = symbols[i];
+
+        if(current_symbol == InputMessage.END_OF_LINE)
+          output_message.writeEndOfSentence();
+        else
+          if(current_symbol == InputMessage.END_OF_WORD)
+            output_message.writeEndOfWord();
+          else
+            output_message.writeLetter(current_symbol);
+      }
+
+      output_message.flush();
+    }
+    catch(IOException | RuntimeException e) {
+      upstream.cancel();
+      onError(e);
+      return;
+    }
+
+    String text = encoded.toString();
+    encoded.reset();
+
+    // Nothing to publish? (ask for the next batch instead)
+    if(text.isEmpty())
+      upstream.request(1);
+    else
+      downstream.onNext(text);
+  }
+
+  public void onError(Throwable error) {
+    Flow.Subscriber<? super String> subscriber;
+
+    synchronized(this) {
+      if(done)
+        return;
+
+      done = true;
+      upstream_error = error;
+      subscriber = downstream;
+    }
+
+    if(subscriber != null)
+      subscriber.onError(error);
+  }
+
+  public void onComplete() {
+    Flow.Subscriber<? super String> subscriber;
+
+    synchronized(this) {
+      if(done)
+        return;
+
+      done = true;
+      subscriber = downstream;
+    }
+
+    if(subscriber != null)
+      subscriber.onComplete();
+  }
+
+  // Private Methods
+
+  private void requestUpstream(long count) {
+  // -----------------------------------------------------------
+  // Requests count batches upstream (once subscribed to it).
+  // -----------------------------------------------------------
+    Flow.Subscription subscription;
+
+    synchronized(this) {
+      subscription = upstream;
+
+      if(subscription == null) {
+        if(count <= 0)
+          request_invalid = true;
+        else {
+          pending_demand = pending_demand + count;
+
+          // Unbounded once Long.MAX_VALUE reached
+          if(pending_demand < 0)
+            pending_demand = Long.MAX_VALUE;
+        }
+        return;
+      }
+    }
+
+    subscription.request(count);
+  }
+
+  private void cancelUpstream() {
+    Flow.Subscription subscription;
+
+    synchronized(this) {
+      cancelled = true;
+      subscription = upstream;
+    }
+
+    if(subscription != null)
+      subscription.cancel();
+  }
+}
@@ -0,0 +1,295 @@
+package Translator;
+
+// Import Java API Classes
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Import Project Classes
+import Exceptions.InvalidCharFoundException;
+import InputMessageTypes.FollowMessageSource;
+import InputMessageTypes.InputMessage;
+import OutputMessageTypes.OutputMessage;
+
+public class FollowTranslator {
+  // -----------------------------------------------------------
+  // Follows a message file that is being appended to (like
+  // tail -f): each poll translates the complete lines appended
+  // since the last poll and appends their translation to the
+  // output file, so the file is never translated again from
+  // its start. The input message (its position and decoder
+  // state, e.g. whether the last Morse line was blank) and the
+  // output message (its encoder state, e.g. whether a compact
+  // Morse letter was the last written) are kept from one poll
+  // to the next.
+  //
+  // After each poll that translated anything, the input
+  // position, decoder state, encoder state and output length
+  // are saved in a checkpoint file (<output file>.follow),
+  // replaced only once complete. A FollowTranslator
+  // constructed later on the same files resumes from the
+  // checkpoint, first cutting the output back to its
+  // checkpointed length (dropping anything written after the
+  // checkpoint, e.g. before a crash).
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  public static final String CHECKPOINT_SUFFIX = ".follow";
+  private static final String CHECKPOINT_HEADER = "# follow checkpoint v2";
+
+  // Instance Variables
+  private MessageType input_type;
+  private MessageType output_type;
+  private Path checkpoint;
+  private FollowMessageSource source;
+  private InputMessage input_message;
+  private FileOutputStream output_file;
+  private OutputMessage output_message;
+  private Translator translator;
+  private long checkpoint_position;
+
+  // Constructor
+  public FollowTranslator(String input_file_name,
+                          MessageType input_type,
+                          String output_file_name,
+                          MessageType output_type) throws
+                            FileNotFoundException, IOException {
+  // -----------------------------------------------------------
+  // Passed input file (of input_type) to follow, translating
+  // to output file (of output_type). Resumes from the
+  // checkpoint of a previous follow of these files if there is
+  // one, otherwise starts at the start of the input file with
+  // an empty output file.
+  //
+  // Throws FileNotFoundException if the input file not found.
+  // -----------------------------------------------------------
+    this.input_type = input_type;
+    this.output_type = output_type;
+    checkpoint = Paths.get(output_file_name + CHECKPOINT_SUFFIX);
+
+    // Read checkpoint (if any)
+    long position = 0;
+    boolean skip_line_feed = false;
+    int decoder_state = 0;
+    int encoder_state = 0;
+    long output_length = 0;
+    long[] saved = readCheckpoint(output_file_name);
+
+    if(saved != null) {
+      position = saved[0];
+      skip_line_feed = (saved[1] == 1);
+      decoder_state = (int) saved[2];
+      encoder_state = (int) saved[3];
+      output_length = saved[4];
+    }
+
+    // Cut output back to its checkpointed length
+    try (FileChannel output = FileChannel.open(
+              Paths.get(output_file_name), StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE)) {
+      output.truncate(output_length);
+    }
+
+    source = new FollowMessageSource(input_file_name, position,
+                                     skip_line_feed);
+    if(source.isTruncated()) {
+      source.rewind();
+      decoder_state = 0;
+    }
+
+    input_message = input_type.createInputMessage(source);
+    input_message.setDecoderState(decoder_state);
+
+    output_file = new FileOutputStream(output_file_name, true);
+    output_message = output_type.createOutputMessage(output_file);
+    output_message.setEncoderState(encoder_state);
+    translator = new Translator(input_message, output_message);
+
+    checkpoint_position = position;
+  }
+
+  // Follow Methods
+
+  public boolean poll() throws IOException,
+                               InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Translates the complete lines appended to the input file
+  // since the last poll, appending them to the output file,
+  // then saves a checkpoint. Returns true if any line was
+  // translated. If the input file was truncated (e.g. rotated
+  // by a log writer), it is followed again from its start.
+  //
+  // Throws InvalidCharFoundException (or
+  // InvalidBinaryCodeFoundException) for an invalid line (the
+  // follow should then be closed): the checkpoint of the last
+  // poll is kept, so a follow resumed once the file is
+  // corrected carries on from there.
+  // -----------------------------------------------------------
+    if(source.isTruncated())
+      input_message.rewind();
+
+    translator.translateAvailable();
+
+    if(source.getPosition() == checkpoint_position)
+      return false;
+
+    writeCheckpoint();
+    checkpoint_position = source.getPosition();
+    return true;
+  }
+
+  public void follow(long interval_millis) throws IOException,
+                      InvalidCharFoundException, InterruptedException {
+  // -----------------------------------------------------------
+  // Polls the input file every interval_millis until the
+  // thread is interrupted (throwing InterruptedException) or a
+  // poll fails.
+  // -----------------------------------------------------------
+    while(true) {
+      poll();
+      Thread.sleep(interval_millis);
+    }
+  }
+
+  public long getPosition() {
+  // -----------------------------------------------------------
+  // Returns position in the input file up to which it has been
+  // translated.
+  // -----------------------------------------------------------
+    return source.getPosition();
+  }
+
+  public void close() throws IOException {
+  // -----------------------------------------------------------
+  // Closes input and output files (the checkpoint of the last
+  // poll is kept, to resume from).
+  // -----------------------------------------------------------
+    input_message.close();
+    output_message.close();
+  }
+
+  // Private Methods
+
+  private long[] readCheckpoint(String output_file_name)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Returns input position, line feed skipping (1 or 0),
+  // decoder state, encoder state and output length of the
+  // checkpoint, or null
+  // if there is no usable checkpoint: none was saved, it is of
+  // other message types or damaged, or the output file is
+  // shorter than when it was saved.
+  // -----------------------------------------------------------
+    if(!Files.exists(checkpoint))
+      return null;
+
+    long[] saved = new long[5];
+    String types = null;
+    int fields_read = 0;
+
+    try (BufferedReader input = Files.newBufferedReader(checkpoint,
+                                      StandardCharsets.US_ASCII)) {
+      String line;
+
+      while((line = input.readLine()) != null) {
+        String[] fields = line.split(" ");
+
+        if(line.startsWith("#") || fields.length != 2)
+          continue;
+
+        try {
+          if(fields[0].equals("types"))
+            types = fields[1];
+          else
+            if(fields[0].equals("input_position")) {
+              saved[0] = Long.parseLong(fields[1]);
+              fields_read = fields_read + 1;
+            }
+            else
+              if(fields[0].equals("skip_line_feed")) {
+                saved[1] = Long.parseLong(fields[1]);
+                fields_read = fields_read + 1;
+              }
+              else
+                if(fields[0].equals("decoder_state")) {
+                  saved[2] = Long.parseLong(fields[1]);
+                  fields_read = fields_read + 1;
+                }
+                else
+                  if(fields[0].equals("encoder_state")) {
+                    saved[3] = Long.parseLong(fields[1]);
+                    fields_read = fields_read + 1;
+                  }
+                  else
+                    if(fields[0].equals("output_length")) {
+                      saved[4] = Long.parseLong(fields[1]);
+                      fields_read = fields_read + 1;
+                    }
+        }
+        catch(NumberFormatException e) {
+          return null;
+        }
+      }
+    }
+
+    Path output = Paths.get(output_file_name);
+
+    if(fields_read != 5 || !typesName().equals(types) ||
+       !Files.exists(output) || Files.size(output) < saved[4])
+      return null;
+
+    return saved;
+  }
+
+  private void writeCheckpoint() throws IOException {
+  // -----------------------------------------------------------
+  // Saves input position, decoder and encoder states and
+  // output length (once the output is flushed), replacing the
+  // old checkpoint only once the new one is complete.
+  // -----------------------------------------------------------
+    Path directory = checkpoint.toAbsolutePath().getParent();
+    Path temporary = Files.createTempFile(directory, "follow", ".tmp");
+
+    try {
+      try (BufferedWriter output = Files.newBufferedWriter(temporary,
+                                        StandardCharsets.US_ASCII)) {
+        output.write(CHECKPOINT_HEADER);
+        output.newLine();
+        output.write("types " + typesName());
+        output.newLine();
+        output.write("input_position " + source.getPosition());
+        output.newLine();
+        output.write("skip_line_feed " +
+                     (source.isSkippingLineFeed() ? 1 : 0));
+        output.newLine();
+        output.write("decoder_state " + input_message.getDecoderState());
+        output.newLine();
+        output.write("encoder_state " +
+                     output_message.getEncoderState());
+        output.newLine();
+        output.write("output_length " + output_file.getChannel().size());
+        output.newLine();
+      }
+
+      Files.move(temporary, checkpoint,
+                 StandardCopyOption.REPLACE_EXISTING,
+                 StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  private String typesName() {
+    return input_type.getFileType() + output_type.getFileType();
+  }
+}
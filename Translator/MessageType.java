@@ -0,0 +1,154 @@
+package Translator;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+
+// Import Project Classes
+import Exceptions.InvalidMessageTypeException;
+import InputMessageTypes.InputBinaryCodeMessage;
+import InputMessageTypes.InputCompactMorseMessage;
+import InputMessageTypes.InputEnglishMessage;
+import InputMessageTypes.InputMessage;
+import InputMessageTypes.InputMorseCodeMessage;
+import InputMessageTypes.InputPackedBinaryMessage;
+import InputMessageTypes.MessageSource;
+import OutputMessageTypes.OutputBinaryCodeMessage;
+import OutputMessageTypes.OutputCompactMorseMessage;
+import OutputMessageTypes.OutputEnglishMessage;
+import OutputMessageTypes.OutputMessage;
+import OutputMessageTypes.OutputMorseCodeMessage;
+import OutputMessageTypes.OutputPackedBinaryMessage;
+
+public enum MessageType {
+  // -----------------------------------------------------------
+  // The kinds of message that can be translated, named by the
+  // suffix of their file names (e.g. test_MORSE.txt).
+  // -----------------------------------------------------------
+  ENGLISH("_ENGLISH"),
+  MORSE("_MORSE"),
+  BINARY("_BINARY"),
+  BINPACKED("_BINPACKED"),
+  MORSECOMPACT("_MORSECOMPACT");
+
+  // Instance Variables
+  private final String file_type;
+
+  private MessageType(String file_type) {
+    this.file_type = file_type;
+  }
+
+  public String getFileType() {
+  // -----------------------------------------------------------
+  // Returns file name suffix of the message type (e.g. _MORSE).
+  // -----------------------------------------------------------
+    return file_type;
+  }
+
+  public static MessageType forFileType(String file_type) throws
+                                  InvalidMessageTypeException {
+  // -----------------------------------------------------------
+  // Returns message type with file name suffix file_type.
+  // Throws InvalidMessageTypeException if no such type.
+  // -----------------------------------------------------------
+    for(MessageType type : values())
+      if(type.file_type.equals(file_type))
+        return type;
+
+    throw new InvalidMessageTypeException(file_type);
+  }
+
+  public static MessageType forMessage(InputMessage message) {
+  // -----------------------------------------------------------
+  // Returns type of input message (null if of no known type).
+  // -----------------------------------------------------------
+    if(message instanceof InputEnglishMessage)
+      return ENGLISH;
+    if(message instanceof InputMorseCodeMessage)
+      return MORSE;
+    if(message instanceof InputBinaryCodeMessage)
+      return BINARY;
+    if(message instanceof InputPackedBinaryMessage)
+      return BINPACKED;
+    if(message instanceof InputCompactMorseMessage)
+      return MORSECOMPACT;
+    return null;
+  }
+
+  public static MessageType forMessage(OutputMessage message) {
+  // -----------------------------------------------------------
+  // Returns type of output message (null if of no known type).
+  // -----------------------------------------------------------
+    if(message instanceof OutputEnglishMessage)
+      return ENGLISH;
+    if(message instanceof OutputMorseCodeMessage)
+      return MORSE;
+    if(message instanceof OutputBinaryCodeMessage)
+      return BINARY;
+    if(message instanceof OutputPackedBinaryMessage)
+      return BINPACKED;
+    if(message instanceof OutputCompactMorseMessage)
+      return MORSECOMPACT;
+    return null;
+  }
+
+  public InputMessage createInputMessage(MessageSource input) 
+                                          throws IOException {
+  // -----------------------------------------------------------
+  // Constructs an InputMessage of this type reading input.
+  // -----------------------------------------------------------
+    switch(this) {
+      case MORSE: return new InputMorseCodeMessage(input);
+      case BINARY: return new InputBinaryCodeMessage(input);
+      case BINPACKED: return new InputPackedBinaryMessage(input);
+      case MORSECOMPACT: return new InputCompactMorseMessage(input);
+      default: return new InputEnglishMessage(input);
+    }
+  }
+
+  public InputMessage createInputMessage(InputStream input) 
+                                          throws IOException {
+  // -----------------------------------------------------------
+  // Constructs an InputMessage of this type reading byte
+  // stream input.
+  // -----------------------------------------------------------
+    switch(this) {
+      case MORSE: return new InputMorseCodeMessage(input);
+      case BINARY: return new InputBinaryCodeMessage(input);
+      case BINPACKED: return new InputPackedBinaryMessage(input);
+      case MORSECOMPACT: return new InputCompactMorseMessage(input);
+      default: return new InputEnglishMessage(input);
+    }
+  }
+
+  public OutputMessage createOutputMessage(Writer output)
+                                          throws IOException {
+  // -----------------------------------------------------------
+  // Constructs an OutputMessage of this type writing output.
+  // -----------------------------------------------------------
+    switch(this) {
+      case MORSE: return new OutputMorseCodeMessage(output);
+      case BINARY: return new OutputBinaryCodeMessage(output);
+      case BINPACKED: return new OutputPackedBinaryMessage(output);
+      case MORSECOMPACT: return new OutputCompactMorseMessage(output);
+      default: return new OutputEnglishMessage(output);
+    }
+  }
+
+  public OutputMessage createOutputMessage(OutputStream output)
+                                          throws IOException {
+  // -----------------------------------------------------------
+  // Constructs an OutputMessage of this type writing byte
+  // stream output.
+  // -----------------------------------------------------------
+    switch(this) {
+      case MORSE: return new OutputMorseCodeMessage(output);
+      case BINARY: return new OutputBinaryCodeMessage(output);
+      case BINPACKED: return new OutputPackedBinaryMessage(output);
+      case MORSECOMPACT: return new OutputCompactMorseMessage(output);
+      default: return new OutputEnglishMessage(output);
+    }
+  }
+}
\ No newline at end of file
@@ -0,0 +1,412 @@
+package Translator;
+
+// Import Java API Classes
+import java.io.CharArrayWriter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Import Project Classes
+import InputMessageTypes.MappedMessageSource;
+import OutputMessageTypes.AsyncFileWriter;
+import OutputMessageTypes.OutputMessage;
+
+public class ParallelTranslator {
+  // -----------------------------------------------------------
+  // Translates a large message file on all cores. The file is
+  // split into chunks at sentence breaks (line ends for English
+  // and Binary, two blank lines for Morse), each chunk is
+  // translated on a ForkJoinPool, and the translated chunks are
+  // written to the output in their original order. Since every
+  // chunk starts a new sentence, the output is identical to
+  // that of Translator. Like Translator, it can translate to
+  // several outputs in one pass over the input.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  public static final long CHUNK_SIZE = 1L << 20;
+  private static final int MAX_OUTPUT_CHARS_PER_BYTE = 9;
+  private static final int SCAN_BLOCK_SIZE = 64 * 1024;
+  private static final long HASH_WINDOW_SIZE = 1L << 30;
+
+  // Instance Variables
+  private String input_file_name;
+  private MessageType input_type;
+  private Writer[] outputs;
+  private MessageType[] output_types;
+  private ForkJoinPool pool;
+  private MessageDigest input_digest;   // of input file (if any)
+
+  // Constructors
+  public ParallelTranslator(String input_file_name,
+                            MessageType input_type,
+                            Writer output,
+                            MessageType output_type) {
+    this(input_file_name, input_type, output, output_type,
+         ForkJoinPool.commonPool());
+  }
+
+  public ParallelTranslator(String input_file_name,
+                            MessageType input_type,
+                            Writer output,
+                            MessageType output_type,
+                            ForkJoinPool pool) {
+  // -----------------------------------------------------------
+  // Passed input file (of input_type) to translate to output
+  // (of output_type), using the threads of pool.
+  // -----------------------------------------------------------
+    this(input_file_name, input_type, new Writer[] {output},
+         new MessageType[] {output_type}, pool);
+  }
+
+  public ParallelTranslator(String input_file_name,
+                            MessageType input_type,
+                            Writer[] outputs,
+                            MessageType[] output_types,
+                            ForkJoinPool pool) {
+  // -----------------------------------------------------------
+  // Passed input file (of input_type) to translate to each of
+  // outputs (outputs[n] being of output_types[n]), using the
+  // threads of pool.
+  // -----------------------------------------------------------
+    this.input_file_name = input_file_name;
+    this.input_type = input_type;
+    this.outputs = outputs;
+    this.output_types = output_types;
+    this.pool = pool;
+  }
+
+  public void setInputDigest(MessageDigest digest) {
+  // -----------------------------------------------------------
+  // Hashes the input file into digest as it is translated (see
+  // MappedMessageSource.setDigest). Each chunk is hashed, in
+  // order, once written, while its bytes are still in memory.
+  // -----------------------------------------------------------
+    input_digest = digest;
+  }
+
+  // Translate Method
+  public void translate() throws FileNotFoundException,
+                                 IOException {
+  // -----------------------------------------------------------
+  // Translates input file to outputs, then closes outputs
+  // (which are also closed if the translation fails). The
+  // whole translation (and the symbols of each chunk) are
+  // recorded in the TranslationMetrics of each direction.
+  // At most two chunks per thread are translated ahead of the
+  // chunk being written, which bounds the memory used. A file
+  // that cannot be split into chunks (e.g. one long Morse
+  // sentence) is translated in a pipeline instead (see
+  // Translator.translatePipelined).
+  // -----------------------------------------------------------
+    long start = System.nanoTime();
+
+    try (RandomAccessFile input_file =
+                  new RandomAccessFile(input_file_name, "r")) {
+      FileChannel channel = input_file.getChannel();
+      long[] chunk_starts = findChunkStarts(channel);
+
+      if(chunk_starts.length == 2)
+        translatePipelined(channel);
+      else
+        translateChunks(channel, chunk_starts);
+    }
+    catch(IOException | RuntimeException | Error e) {
+      closeOutputs(e);
+      throw e;
+    }
+
+    for(MessageType output_type : output_types)
+      TranslationMetrics.forDirection(input_type, output_type)
+            .recordTranslation(System.nanoTime() - start);
+  }
+
+  // Private Methods
+
+  private void translateChunks(FileChannel channel,
+                        long[] chunk_starts) throws IOException {
+  // -----------------------------------------------------------
+  // Translates the chunks of the input file (starting at
+  // chunk_starts) on the pool, writing them to outputs in
+  // order, then closes outputs.
+  // -----------------------------------------------------------
+    int max_pending = maxPendingChunks();
+
+    ArrayDeque<Future<CharArrayWriter[]>> pending =
+                        new ArrayDeque<Future<CharArrayWriter[]>>();
+    int next_chunk = 0;
+    int written_chunk = 0;
+
+    while(next_chunk < chunk_starts.length - 1 ||
+          !pending.isEmpty()) {
+
+      // Keep pool busy with the chunks that follow
+      while(next_chunk < chunk_starts.length - 1 &&
+            pending.size() < max_pending) {
+        pending.add(pool.submit(new ChunkTranslation(
+                          channel, chunk_starts[next_chunk],
+                          chunk_starts[next_chunk + 1])));
+        next_chunk = next_chunk + 1;
+      }
+
+      // Write oldest chunk to each output once translated
+      Future<CharArrayWriter[]> chunk = pending.remove();
+      try {
+        CharArrayWriter[] translated = waitFor(chunk);
+
+        for(int i = 0; i < outputs.length; i++)
+          translated[i].writeTo(outputs[i]);
+
+        if(input_digest != null)
+          hashChunk(channel, chunk_starts[written_chunk],
+                    chunk_starts[written_chunk + 1]);
+        written_chunk = written_chunk + 1;
+      }
+      catch(IOException | RuntimeException | Error e) {
+        for(Future<CharArrayWriter[]> other : pending)
+          other.cancel(true);
+        throw e;
+      }
+    }
+
+    for(Writer output : outputs) {
+      output.flush();
+      output.close();
+    }
+  }
+
+  private void translatePipelined(FileChannel channel) throws
+                                                  IOException {
+  // -----------------------------------------------------------
+  // Translates the whole input file straight to outputs in a
+  // pipeline of reader, encoder and writer threads, then
+  // closes outputs.
+  // -----------------------------------------------------------
+    OutputMessage[] output_messages = new OutputMessage[outputs.length];
+
+    for(int i = 0; i < outputs.length; i++)
+      output_messages[i] = output_types[i].createOutputMessage(outputs[i]);
+
+    MappedMessageSource source = 
+                  new MappedMessageSource(channel, 0, channel.size());
+    source.setDigest(input_digest);
+
+    Translator translator = new Translator(
+      input_type.createInputMessage(source), output_messages);
+
+    translator.translatePipelinedPart();
+  }
+
+  private void hashChunk(FileChannel channel, long start, long end)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Hashes bytes start..end-1 of the input file into
+  // input_digest (through mapped windows, as the chunk's bytes
+  // have just been read and are still in the page cache).
+  // -----------------------------------------------------------
+    for(long position = start; position < end;
+        position = position + HASH_WINDOW_SIZE)
+      input_digest.update(channel.map(FileChannel.MapMode.READ_ONLY,
+                  position, Math.min(HASH_WINDOW_SIZE, end - position)));
+  }
+
+  private int maxPendingChunks() {
+  // -----------------------------------------------------------
+  // Returns how many chunks may be translated ahead of the one
+  // being written: two per thread of the pool, but no more than
+  // a quarter of the heap holds when every chunk expands to
+  // MAX_OUTPUT_CHARS_PER_BYTE chars (English to Binary) per
+  // output.
+  // -----------------------------------------------------------
+    long chunk_memory = CHUNK_SIZE * MAX_OUTPUT_CHARS_PER_BYTE *
+                        Character.BYTES * outputs.length;
+    long max_pending = Runtime.getRuntime().maxMemory() / 4 /
+                       chunk_memory;
+
+    return (int) Math.max(1, Math.min(max_pending,
+                                      2L * pool.getParallelism()));
+  }
+
+  private long[] findChunkStarts(FileChannel channel) throws
+                                                  IOException {
+  // -----------------------------------------------------------
+  // Returns start positions of the chunks (followed by the
+  // file size), one chunk per CHUNK_SIZE bytes, so the output
+  // buffered for a chunk stays small however large the file.
+  // -----------------------------------------------------------
+    long size = channel.size();
+    long chunk_count = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    ArrayList<Long> starts = new ArrayList<Long>();
+
+    starts.add(0L);
+
+    for(long i = 1; i < chunk_count; i++) {
+      long start = findSentenceStart(channel, i * size / chunk_count);
+
+      if(start > starts.get(starts.size() - 1) && start < size)
+        starts.add(start);
+    }
+    starts.add(size);
+
+    long[] chunk_starts = new long[starts.size()];
+    for(int i = 0; i < chunk_starts.length; i++)
+      chunk_starts[i] = starts.get(i);
+
+    return chunk_starts;
+  }
+
+  private long findSentenceStart(FileChannel channel, long from)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Returns position of the first line at or after from that
+  // starts a sentence (the file size if there is none).
+  //
+  // For English and Binary, that is any line following a line
+  // end. For Morse, it is a non-blank line following two blank
+  // lines. A "\r\n" line end is never split.
+  // -----------------------------------------------------------
+    ByteBuffer block = ByteBuffer.allocate(SCAN_BLOCK_SIZE);
+    long position = from;
+    boolean skipped_partial_line = false;
+    boolean line_blank = true;
+    boolean after_cr = false;
+    int blank_lines = 0;
+
+    while(true) {
+      block.clear();
+      int length = channel.read(block, position);
+
+      if(length <= 0)
+        return channel.size();
+
+      for(int i = 0; i < length; i++, position++) {
+        int chr = block.get(i);
+
+        // '\n' of a "\r\n" line end
+        if(after_cr && chr == '\n') {
+          after_cr = false;
+          continue;
+        }
+        after_cr = false;
+
+        if(chr == '\n' || chr == '\r') {
+          after_cr = (chr == '\r');
+
+          // Line started before from may be a blank line's end
+          if(!skipped_partial_line)
+            skipped_partial_line = true;
+          else
+            if(line_blank)
+              blank_lines = blank_lines + 1;
+            else
+              blank_lines = 0;
+
+          line_blank = true;
+        }
+        else {
+          if(skipped_partial_line && line_blank &&
+             (input_type != MessageType.MORSE || blank_lines >= 2))
+            return position;
+
+          line_blank = false;
+        }
+      }
+    }
+  }
+
+  private void closeOutputs(Throwable failure) {
+  // -----------------------------------------------------------
+  // Closes outputs once the translation has failed (closing an
+  // output already closed does nothing), discarding what an
+  // AsyncFileWriter still buffers. Errors closing them are
+  // added to failure (as suppressed exceptions).
+  // -----------------------------------------------------------
+    for(Writer output : outputs)
+      try {
+        if(output instanceof AsyncFileWriter)
+          ((AsyncFileWriter) output).abort();
+        else
+          output.close();
+      }
+      catch(IOException | RuntimeException e) {
+        if(e != failure)
+          failure.addSuppressed(e);
+      }
+  }
+
+  private CharArrayWriter[] waitFor(Future<CharArrayWriter[]> chunk)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Returns translated chunk, rethrowing any exception thrown
+  // while translating it.
+  // -----------------------------------------------------------
+    try {
+      return chunk.get();
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("translation interrupted");
+    }
+    catch(ExecutionException e) {
+      Throwable cause = e.getCause();
+
+      if(cause instanceof IOException)
+        throw (IOException) cause;
+      if(cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+      if(cause instanceof Error)
+        throw (Error) cause;
+      throw new IOException(cause);
+    }
+  }
+
+  // Chunk Translation Task
+
+  private class ChunkTranslation implements
+                                  Callable<CharArrayWriter[]> {
+    private FileChannel channel;
+    private long start;
+    private long end;
+
+    ChunkTranslation(FileChannel channel, long start, long end) {
+      this.channel = channel;
+      this.start = start;
+      this.end = end;
+    }
+
+    public CharArrayWriter[] call() throws IOException {
+    // ---------------------------------------------------------
+    // Translates bytes start..end-1 of the input file into an
+    // in-memory buffer per output.
+    // ---------------------------------------------------------
+      CharArrayWriter[] translated = new CharArrayWriter[outputs.length];
+      OutputMessage[] output_messages = new OutputMessage[outputs.length];
+
+      for(int i = 0; i < outputs.length; i++) {
+        translated[i] = new CharArrayWriter();
+        output_messages[i] = output_types[i].createOutputMessage(
+                                  new PrintWriter(translated[i]));
+      }
+
+      Translator translator = new Translator(
+        input_type.createInputMessage(
+                    new MappedMessageSource(channel, start, end)),
+        output_messages);
+
+      translator.translatePart();
+
+      return translated;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package Translator;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Import Project Classes
+import InputMessageTypes.InputMessage;
+
+public class SymbolPublisher implements Flow.Publisher<int[]> {
+  // -----------------------------------------------------------
+  // Publishes the symbols of an input message (the ordinal
+  // values of its letters, END_OF_WORD and END_OF_LINE) in
+  // batches of up to BATCH_SIZE symbols, then completes at its
+  // end. A batch is read only once the subscriber has requested
+  // it, so a slow subscriber slows the reading of the message
+  // rather than making batches pile up in memory.
+  //
+  // Batches are read (and passed to onNext) on executor. An
+  // invalid symbol (InvalidCharFoundException or
+  // InvalidBinaryCodeFoundException) is signalled by onError,
+  // after a batch of the symbols read before it. The message
+  // is closed once published (or cancelled). As a message is
+  // read only once, there can be only one subscriber.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  public static final int BATCH_SIZE = 8192;
+
+  // Instance Variables
+  private InputMessage input_message;
+  private Executor executor;
+  private AtomicBoolean subscribed = new AtomicBoolean(false);
+
+  // Constructors
+  public SymbolPublisher(InputMessage input_message) {
+    this(input_message, ForkJoinPool.commonPool());
+  }
+
+  public SymbolPublisher(InputMessage input_message,
+                         Executor executor) {
+    this.input_message = input_message;
+    this.executor = executor;
+  }
+
+  // Publisher Methods
+
+  public void subscribe(Flow.Subscriber<? super int[]> subscriber) {
+    if(subscriber == null)
+      throw new NullPointerException("subscriber");
+
+    if(!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        public void request(long count) {
+        }
+
+        public void cancel() {
+        }
+      });
+      subscriber.onError(new IllegalStateException(
+                              "symbols already published"));
+      return;
+    }
+
+    subscriber.onSubscribe(new SymbolSubscription(subscriber));
+  }
+
+  // Subscription
+
+  private class SymbolSubscription implements Flow.Subscription,
+                                              Runnable {
+    // ---------------------------------------------------------
+    // Reads and publishes as many batches as requested. Only
+    // one thread runs run at a time: request and cancel
+    // count work to do and start run only if none was counted,
+    // and run goes on until it has done all the work counted.
+    // ---------------------------------------------------------
+    private Flow.Subscriber<? super int[]> subscriber;
+    private AtomicLong demand = new AtomicLong(0);
+    private AtomicInteger work = new AtomicInteger(0);
+    private volatile boolean cancelled = false;
+    private volatile IllegalArgumentException invalid_request;
+    private boolean done = false;
+    private int[] symbols = new int[BATCH_SIZE];
+
+    SymbolSubscription(Flow.Subscriber<? super int[]> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    public void request(long count) {
+      if(count <= 0)
+        invalid_request = new IllegalArgumentException(
+                                "non-positive request: " + count);
+      else {
+        long current;
+        long requested;
+
+        do {
+          current = demand.get();
+          requested = current + count;
+
+          // Unbounded once Long.MAX_VALUE reached
+          if(requested < 0)
+            requested = Long.MAX_VALUE;
+        } while(!demand.compareAndSet(current, requested));
+      }
+
+      schedule();
+    }
+
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    public void run() {
+      int missed = 1;
+
+      while(missed != 0) {
+        publish();
+        missed = work.addAndGet(-missed);
+      }
+    }
+
+    private void schedule() {
+      if(work.getAndIncrement() == 0)
+        executor.execute(this);
+    }
+
+    private void publish() {
+    // ---------------------------------------------------------
+    // Reads and publishes batches while there is demand (ends
+    // the subscription if cancelled or at end of message).
+    // ---------------------------------------------------------
+      if(done)
+        return;
+
+      if(cancelled) {
+        finish();
+        return;
+      }
+
+      if(invalid_request != null) {
+        finish();
+        subscriber.onError(invalid_request);
+        return;
+      }
+
+      while(demand.get() > 0 && !cancelled) {
+        int length = 0;
+        int current_symbol = 0;
+
+        // Read next batch of symbols
+        try {
+          while(length < BATCH_SIZE &&
+                (current_symbol = input_message.readSymbol()) !=
+                                          InputMessage.END_OF_MESSAGE) {
+            symbols[length] = current_symbol;
+            length = length + 1;
+          }
+        }
+        catch(IOException | RuntimeException e) {
+          finish();
+          if(length > 0)
+            subscriber.onNext(Arrays.copyOf(symbols, length));
+          subscriber.onError(e);
+          return;
+        }
+
+        if(length > 0) {
+          demand.decrementAndGet();
+          subscriber.onNext(Arrays.copyOf(symbols, length));
+        }
+
+        // End of message?
+        if(current_symbol == InputMessage.END_OF_MESSAGE) {
+          done = true;
+
+          try {
+            input_message.close();
+          }
+          catch(IOException e) {
+            subscriber.onError(e);
+            return;
+          }
+
+          subscriber.onComplete();
+          return;
+        }
+      }
+
+      if(cancelled)
+        finish();
+    }
+
+    private void finish() {
+    // ---------------------------------------------------------
+    // Ends the subscription, closing the message.
+    // ---------------------------------------------------------
+      done = true;
+
+      try {
+        input_message.close();
+      }
+      catch(IOException e) {
+        // Nothing more is read from the message
+      }
+    }
+  }
+}
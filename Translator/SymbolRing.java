@@ -0,0 +1,131 @@
+package Translator;
+
+// Import Java API Classes
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.locks.LockSupport;
+
+class SymbolRing {
+  // -----------------------------------------------------------
+  // Bounded queue of symbol batches from one producer thread to
+  // one consumer thread, with no locks: the producer alone
+  // advances tail and the consumer alone advances head (both
+  // volatile, so publishing a batch publishes its symbols).
+  // The batches (int arrays) are allocated once and reused, so
+  // handing symbols over allocates nothing.
+  //
+  // A producer finding every batch full, or a consumer finding
+  // none published, waits (spinning briefly, then parking), so
+  // a fast stage is held back by a slow one.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  static final int BATCH_SIZE = 8192;
+  static final int BATCH_COUNT = 8;       // a power of 2
+  private static final int SPIN_LIMIT = 100;
+  private static final int YIELD_LIMIT = 200;
+  private static final long PARK_NANOS = 20000;
+
+  // Instance Variables
+  private final int[][] batches = new int[BATCH_COUNT][BATCH_SIZE];
+  private final int[] lengths = new int[BATCH_COUNT];
+  private final Throwable[] failures = new Throwable[BATCH_COUNT];
+  private volatile long head = 0;     // next batch to take
+  private volatile long tail = 0;     // next batch to publish
+  private volatile boolean cancelled = false;
+
+  // Producer Methods
+
+  int[] claim() throws InterruptedIOException {
+  // -----------------------------------------------------------
+  // Returns next batch to fill, once the consumer has taken it
+  // (null if the consumer has cancelled).
+  // -----------------------------------------------------------
+    long claimed = tail;
+
+    for(int attempt = 0; claimed - head == BATCH_COUNT; attempt++) {
+      if(cancelled)
+        return null;
+      backOff(attempt);
+    }
+
+    return batches[(int) claimed & (BATCH_COUNT - 1)];
+  }
+
+  void publish(int length, Throwable failure) {
+  // -----------------------------------------------------------
+  // Hands batch claimed (its first length symbols) to the
+  // consumer, with the failure that ended reading (or null).
+  // -----------------------------------------------------------
+    int index = (int) tail & (BATCH_COUNT - 1);
+
+    lengths[index] = length;
+    failures[index] = failure;
+    tail = tail + 1;
+  }
+
+  // Consumer Methods
+
+  int[] take() throws InterruptedIOException {
+  // -----------------------------------------------------------
+  // Returns next batch published (the length of which is
+  // given by getLength), waiting for one if need be.
+  // -----------------------------------------------------------
+    long taken = head;
+
+    for(int attempt = 0; taken == tail; attempt++)
+      backOff(attempt);
+
+    return batches[(int) taken & (BATCH_COUNT - 1)];
+  }
+
+  int getLength() {
+    return lengths[(int) head & (BATCH_COUNT - 1)];
+  }
+
+  void release() throws IOException {
+  // -----------------------------------------------------------
+  // Gives batch taken back to the producer, first throwing the
+  // failure published with it (if any).
+  // -----------------------------------------------------------
+    int index = (int) head & (BATCH_COUNT - 1);
+    Throwable failure = failures[index];
+
+    failures[index] = null;
+    head = head + 1;
+
+    if(failure instanceof IOException)
+      throw (IOException) failure;
+    if(failure instanceof RuntimeException)
+      throw (RuntimeException) failure;
+    if(failure instanceof Error)
+      throw (Error) failure;
+    if(failure != null)
+      throw new IOException(failure);
+  }
+
+  void cancel() {
+  // -----------------------------------------------------------
+  // Stops the producer (its next claim returns null), once the
+  // consumer has failed.
+  // -----------------------------------------------------------
+    cancelled = true;
+  }
+
+  // Private Methods
+
+  private static void backOff(int attempt) throws
+                                        InterruptedIOException {
+    if(attempt < SPIN_LIMIT)
+      Thread.onSpinWait();
+    else
+      if(attempt < YIELD_LIMIT)
+        Thread.yield();
+      else {
+        LockSupport.parkNanos(PARK_NANOS);
+
+        if(Thread.currentThread().isInterrupted())
+          throw new InterruptedIOException("translation interrupted");
+      }
+  }
+}
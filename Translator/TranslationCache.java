@@ -0,0 +1,448 @@
+package Translator;
+
+// Import Java API Classes
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TranslationCache {
+  // -----------------------------------------------------------
+  // Cache of translated files, so translating a file whose
+  // contents were translated before copies the earlier
+  // translation instead of translating again.
+  //
+  // Translations are keyed by a SHA-256 hash of the input
+  // file's contents (and of the code tables), plus the input
+  // and output types. The hash is taken while the file is
+  // translated (see newInputDigest), so a file is read only
+  // once. Each translation also records the size and
+  // modification time of its input, and a file is hashed to
+  // look it up only if a translation of an input with the same
+  // size and time is cached: a file never translated before is
+  // not read by the cache at all.
+  //
+  // Translations are kept as files of the cache directory, up
+  // to max_bytes in all, evicting the least recently used
+  // first. The index of the cache (in LRU order) is kept in the
+  // directory too, so the cache survives restarts. It is
+  // rewritten when a translation is stored (not when one is
+  // fetched, so recency is saved with the next store).
+  //
+  // A failure of the cache never fails a translation: it is
+  // treated as a cache miss (or the translation is not kept).
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final String INDEX_FILE_NAME = "index.txt";
+  private static final String INDEX_HEADER = "# translation cache v2";
+  private static final String[] CODE_TABLE_FILE_NAMES =
+        {"Data/MorseCode_Table.txt", "Data/BinaryCode_Table.txt"};
+  private static final int HASH_BLOCK_SIZE = 64 * 1024;
+
+  // Instance Variables
+  private Path directory;
+  private long max_bytes;
+  private boolean link_outputs;
+  private byte[] code_tables_hash;
+  private long total_bytes = 0;
+
+  // Input last hashed to look it up (so it is hashed only once
+  // for its several output types)
+  private String hashed_file_name;
+  private long hashed_size;
+  private long hashed_time;
+  private byte[] hashed_input;
+
+  // Cached translations by key, least recently used first
+  private LinkedHashMap<String, CacheEntry> entries =
+            new LinkedHashMap<String, CacheEntry>(16, 0.75f, true);
+
+  // Constructors
+  public TranslationCache(String directory_name, long max_bytes)
+                                              throws IOException {
+    this(directory_name, max_bytes, false);
+  }
+
+  public TranslationCache(String directory_name, long max_bytes,
+                          boolean link_outputs) throws IOException {
+  // -----------------------------------------------------------
+  // Opens (creating if needed) the cache in directory_name,
+  // holding at most max_bytes of translations. If link_outputs,
+  // cached translations are hard-linked to output files rather
+  // than copied (faster, but editing an output file then edits
+  // the cached translation too).
+  //
+  // Throws IOException if the directory cannot be created or
+  // the code tables cannot be read.
+  // -----------------------------------------------------------
+    this.directory = Paths.get(directory_name);
+    this.max_bytes = max_bytes;
+    this.link_outputs = link_outputs;
+
+    Files.createDirectories(directory);
+    code_tables_hash = hashCodeTables();
+    readIndex();
+  }
+
+  // Cache Methods
+
+  public MessageDigest newInputDigest() {
+  // -----------------------------------------------------------
+  // Returns digest to hash an input file with as it is
+  // translated (e.g. by MappedMessageSource.setDigest), its
+  // hash then giving the key of the translation (see keyFor).
+  // -----------------------------------------------------------
+    return newDigest();
+  }
+
+  public String keyFor(byte[] input_hash, MessageType input_type,
+                       MessageType output_type) {
+  // -----------------------------------------------------------
+  // Returns cache key of translating an input whose contents
+  // hash to input_hash (of input_type) to output_type.
+  // -----------------------------------------------------------
+    MessageDigest digest = newDigest();
+
+    digest.update(code_tables_hash);
+    digest.update(input_hash);
+
+    return toHex(digest.digest()) + input_type.getFileType() +
+           output_type.getFileType();
+  }
+
+  public String findKey(String input_file_name, MessageType input_type,
+                        MessageType output_type) throws IOException {
+  // -----------------------------------------------------------
+  // Returns cache key of translating file input_file_name (of
+  // input_type) to output_type if that translation is cached,
+  // otherwise null. The file is hashed only if a translation
+  // to output_type of an input of the same size and
+  // modification time is cached.
+  // Throws IOException if the input file cannot be read.
+  // -----------------------------------------------------------
+    Path input = Paths.get(input_file_name);
+    long size = Files.size(input);
+    long time = Files.getLastModifiedTime(input).toMillis();
+    String types = input_type.getFileType() + output_type.getFileType();
+
+    if(!hasInput(size, time, types))
+      return null;
+
+    String key = keyFor(hashInput(input_file_name, size, time),
+                        input_type, output_type);
+
+    synchronized(this) {
+      return entries.containsKey(key) ? key : null;
+    }
+  }
+
+  public synchronized boolean fetch(String key,
+                                    String output_file_name) {
+  // -----------------------------------------------------------
+  // Writes translation cached under key to output_file_name
+  // (replacing it). Returns false, writing nothing, if no
+  // translation is cached under key.
+  // -----------------------------------------------------------
+    // Look up (and so mark as most recently used) translation
+    if(entries.get(key) == null)
+      return false;
+
+    Path cached = entryPath(key);
+    Path output = Paths.get(output_file_name);
+
+    try {
+      if(link_outputs) {
+        Files.deleteIfExists(output);
+        Files.createLink(output, cached);
+      }
+      else
+        Files.copy(cached, output, StandardCopyOption.REPLACE_EXISTING);
+
+      return true;
+    }
+    catch(IOException | UnsupportedOperationException e) {
+      removeEntry(key);
+      return false;
+    }
+  }
+
+  public synchronized void store(String key, String input_file_name,
+                                 String output_file_name) {
+  // -----------------------------------------------------------
+  // Keeps a copy of translation output_file_name (of input file
+  // input_file_name) under key, evicting least recently used
+  // translations to stay within max_bytes. (A translation
+  // larger than max_bytes is not kept.)
+  // -----------------------------------------------------------
+    Path input = Paths.get(input_file_name);
+    Path output = Paths.get(output_file_name);
+
+    try {
+      long size = Files.size(output);
+      if(size > max_bytes)
+        return;
+
+      CacheEntry entry = new CacheEntry(size, Files.size(input),
+                      Files.getLastModifiedTime(input).toMillis());
+
+      // Copy under a temporary name, so a crash never leaves a
+      // partial translation under the key
+      Path temporary = Files.createTempFile(directory, "store", ".tmp");
+      try {
+        Files.copy(output, temporary, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temporary, entryPath(key),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally {
+        Files.deleteIfExists(temporary);
+      }
+
+      CacheEntry replaced = entries.put(key, entry);
+      total_bytes = total_bytes + size -
+                    (replaced == null ? 0 : replaced.size);
+
+      evict();
+      writeIndex();
+    }
+    catch(IOException e) {
+      // translation not kept
+    }
+  }
+
+  public synchronized long getTotalBytes() {
+    return total_bytes;
+  }
+
+  public synchronized int getEntryCount() {
+    return entries.size();
+  }
+
+  // Private Methods
+
+  private synchronized boolean hasInput(long size, long time,
+                                        String types) {
+  // -----------------------------------------------------------
+  // Returns true if a translation of types (e.g. _ENGLISH_MORSE)
+  // of an input of size bytes modified at time is cached.
+  // -----------------------------------------------------------
+    for(Map.Entry<String, CacheEntry> entry : entries.entrySet())
+      if(entry.getValue().input_size == size &&
+         entry.getValue().input_time == time &&
+         entry.getKey().endsWith(types))
+        return true;
+
+    return false;
+  }
+
+  private byte[] hashInput(String input_file_name, long size,
+                           long time) throws IOException {
+  // -----------------------------------------------------------
+  // Returns hash of the contents of input_file_name (of size
+  // bytes, modified at time), reusing the last hash taken if
+  // it was of the same file, size and time.
+  // -----------------------------------------------------------
+    synchronized(this) {
+      if(input_file_name.equals(hashed_file_name) &&
+         size == hashed_size && time == hashed_time)
+        return hashed_input;
+    }
+
+    MessageDigest digest = newDigest();
+    ByteBuffer block = ByteBuffer.allocate(HASH_BLOCK_SIZE);
+
+    try (FileChannel input = FileChannel.open(
+                Paths.get(input_file_name), StandardOpenOption.READ)) {
+      while(input.read(block) > 0) {
+        block.flip();
+        digest.update(block);
+        block.clear();
+      }
+    }
+
+    byte[] input_hash = digest.digest();
+
+    synchronized(this) {
+      hashed_file_name = input_file_name;
+      hashed_size = size;
+      hashed_time = time;
+      hashed_input = input_hash;
+    }
+    return input_hash;
+  }
+
+  private void evict() {
+  // -----------------------------------------------------------
+  // Removes least recently used translations until the cache
+  // holds at most max_bytes.
+  // -----------------------------------------------------------
+    Iterator<Map.Entry<String, CacheEntry>> oldest =
+                                  entries.entrySet().iterator();
+
+    while(total_bytes > max_bytes && oldest.hasNext()) {
+      Map.Entry<String, CacheEntry> entry = oldest.next();
+
+      deleteEntryFile(entry.getKey());
+      total_bytes = total_bytes - entry.getValue().size;
+      oldest.remove();
+    }
+  }
+
+  private void removeEntry(String key) {
+    CacheEntry entry = entries.remove(key);
+
+    if(entry != null) {
+      total_bytes = total_bytes - entry.size;
+      deleteEntryFile(key);
+    }
+  }
+
+  private void deleteEntryFile(String key) {
+    try {
+      Files.deleteIfExists(entryPath(key));
+    }
+    catch(IOException e) {
+      // left behind; no longer in the index
+    }
+  }
+
+  private Path entryPath(String key) {
+    return directory.resolve(key + ".txt");
+  }
+
+  private void readIndex() throws IOException {
+  // -----------------------------------------------------------
+  // Reads index of the cache (least recently used first),
+  // skipping translations whose files are missing or of the
+  // wrong size (and the lines of an older index, which has no
+  // input sizes and times).
+  // -----------------------------------------------------------
+    Path index = directory.resolve(INDEX_FILE_NAME);
+
+    if(!Files.exists(index))
+      return;
+
+    try (BufferedReader input =
+          Files.newBufferedReader(index, StandardCharsets.US_ASCII)) {
+      String line;
+
+      while((line = input.readLine()) != null) {
+        String[] fields = line.split(" ");
+
+        if(line.startsWith("#") || fields.length != 4)
+          continue;
+
+        try {
+          CacheEntry entry = new CacheEntry(Long.parseLong(fields[1]),
+                                            Long.parseLong(fields[2]),
+                                            Long.parseLong(fields[3]));
+          Path cached = entryPath(fields[0]);
+
+          if(Files.isRegularFile(cached) &&
+             Files.size(cached) == entry.size) {
+            entries.put(fields[0], entry);
+            total_bytes = total_bytes + entry.size;
+          }
+        }
+        catch(NumberFormatException e) {
+          // damaged line
+        }
+      }
+    }
+
+    evict();
+  }
+
+  private void writeIndex() throws IOException {
+  // -----------------------------------------------------------
+  // Writes index of the cache (least recently used first),
+  // replacing the old index only once the new one is complete.
+  // -----------------------------------------------------------
+    Path temporary = Files.createTempFile(directory, "index", ".tmp");
+
+    try {
+      try (BufferedWriter output = Files.newBufferedWriter(temporary,
+                                        StandardCharsets.US_ASCII)) {
+        output.write(INDEX_HEADER);
+        output.newLine();
+
+        for(Map.Entry<String, CacheEntry> entry : entries.entrySet()) {
+          output.write(entry.getKey() + " " + entry.getValue().size +
+                       " " + entry.getValue().input_size +
+                       " " + entry.getValue().input_time);
+          output.newLine();
+        }
+      }
+
+      Files.move(temporary, directory.resolve(INDEX_FILE_NAME),
+                 StandardCopyOption.REPLACE_EXISTING,
+                 StandardCopyOption.ATOMIC_MOVE);
+    }
+    finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  private static byte[] hashCodeTables() throws IOException {
+  // -----------------------------------------------------------
+  // Returns hash of the code tables, so translations made with
+  // other tables are never taken from the cache.
+  // -----------------------------------------------------------
+    MessageDigest digest = newDigest();
+
+    for(String file_name : CODE_TABLE_FILE_NAMES)
+      digest.update(Files.readAllBytes(Paths.get(file_name)));
+
+    return digest.digest();
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch(NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);  // required of every JVM
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(2 * bytes.length);
+
+    for(byte b : bytes)
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+         .append(Character.forDigit(b & 0xF, 16));
+
+    return hex.toString();
+  }
+
+  // Cache Entry
+
+  private static class CacheEntry {
+    // ---------------------------------------------------------
+    // Size of a cached translation, and size and modification
+    // time (in ms) of the input file it was translated from.
+    // ---------------------------------------------------------
+    private long size;
+    private long input_size;
+    private long input_time;
+
+    CacheEntry(long size, long input_size, long input_time) {
+      this.size = size;
+      this.input_size = input_size;
+      this.input_time = input_time;
+    }
+  }
+}
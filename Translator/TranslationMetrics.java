@@ -0,0 +1,312 @@
+package Translator;
+
+// Import Java API Classes
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Import Project Classes
+import CodeTables.CodeTableRegistry;
+
+public class TranslationMetrics implements TranslationMetricsMXBean {
+  // -----------------------------------------------------------
+  // Counts and times the translations of one direction. The
+  // metrics of each direction are created the first time a
+  // translator of that direction is constructed. They are
+  // registered as MXBeans only once publish is called (or if
+  // the system property translator.jmx is true), as starting
+  // the platform MBean server takes longer than translating a
+  // short file: a one-off translation only counts.
+  //
+  // Translators count symbols in local variables and record
+  // them once per message, into striped counters (LongAdder),
+  // so recording costs a few additions per message and
+  // threads do not contend on the counters.
+  // -----------------------------------------------------------
+
+  // Symbolic Constants
+  private static final String OBJECT_NAME =
+      "MessageTranslator:type=TranslationMetrics,direction=";
+  private static final int LATENCY_BUCKETS = 40;
+  public static final String JMX_PROPERTY = "translator.jmx";
+
+  // Metrics of each direction (created on first use)
+  private static final ConcurrentHashMap<String, TranslationMetrics>
+      directions = new ConcurrentHashMap<String, TranslationMetrics>();
+  private static final LongBinaryOperator MAX =
+                                  new LongBinaryOperator() {
+    public long applyAsLong(long left, long right) {
+      return Math.max(left, right);
+    }
+  };
+  private static boolean published =     // guarded by directions
+                                  Boolean.getBoolean(JMX_PROPERTY);
+
+  // Instance Variables
+  private final String direction;
+  private final LongAdder translations = new LongAdder();
+  private final LongAdder letters = new LongAdder();
+  private final LongAdder words = new LongAdder();
+  private final LongAdder sentences = new LongAdder();
+  private final LongAdder chars_in = new LongAdder();
+  private final LongAdder chars_out = new LongAdder();
+  private final LongAdder read_nanos = new LongAdder();
+  private final LongAdder encode_nanos = new LongAdder();
+  private final LongAdder write_nanos = new LongAdder();
+  private final LongAdder timed_translations = new LongAdder();
+  private final LongAdder latency_nanos = new LongAdder();
+  private final LongAccumulator latency_max_nanos =
+                                  new LongAccumulator(MAX, 0);
+  private final AtomicLongArray latency_histogram =
+                                  new AtomicLongArray(LATENCY_BUCKETS);
+  private final ConcurrentHashMap<String, LongAdder> errors =
+                              new ConcurrentHashMap<String, LongAdder>();
+
+  // Constructor
+  private TranslationMetrics(String direction) {
+    this.direction = direction;
+  }
+
+  public static TranslationMetrics forDirection(MessageType from,
+                                                MessageType to) {
+  // -----------------------------------------------------------
+  // Returns metrics of translating from type from to type to,
+  // creating them on first use (and registering them, once
+  // published). If they cannot be registered, they are still
+  // collected.
+  // -----------------------------------------------------------
+    String direction = from + "_" + to;
+    TranslationMetrics metrics = directions.get(direction);
+
+    if(metrics == null) {
+      synchronized(directions) {
+        metrics = directions.get(direction);
+
+        if(metrics == null) {
+          metrics = new TranslationMetrics(direction);
+          if(published)
+            register(metrics);
+          directions.put(direction, metrics);
+        }
+      }
+    }
+    return metrics;
+  }
+
+  public static void publish() {
+  // -----------------------------------------------------------
+  // Registers the metrics of every direction as MXBeans (those
+  // created so far now, the others as they are created), e.g.
+  // for a long-running server to be watched with jconsole.
+  // -----------------------------------------------------------
+    synchronized(directions) {
+      if(published)
+        return;
+
+      published = true;
+      for(TranslationMetrics metrics : directions.values())
+        register(metrics);
+    }
+  }
+
+  // Recording Methods (called by translators)
+
+  void recordSymbols(long letter_count, long word_count,
+                     long sentence_count, long chars_read,
+                     long chars_written) {
+    letters.add(letter_count);
+    words.add(word_count);
+    sentences.add(sentence_count);
+    chars_in.add(chars_read);
+    chars_out.add(chars_written);
+  }
+
+  void recordPhases(long read, long encode, long write) {
+    read_nanos.add(read);
+    encode_nanos.add(encode);
+    write_nanos.add(write);
+  }
+
+  void recordTranslation(long elapsed_nanos) {
+  // -----------------------------------------------------------
+  // Counts a successful translation taking elapsed_nanos.
+  // -----------------------------------------------------------
+    long micros = elapsed_nanos / 1000;
+    int bucket = 64 - Long.numberOfLeadingZeros(micros);
+
+    translations.increment();
+    timed_translations.increment();
+    latency_nanos.add(elapsed_nanos);
+    latency_max_nanos.accumulate(elapsed_nanos);
+    latency_histogram.incrementAndGet(
+                          Math.min(bucket, LATENCY_BUCKETS - 1));
+  }
+
+  void recordUntimedTranslation() {
+  // -----------------------------------------------------------
+  // Counts a successful translation that was not timed (only
+  // a sample of short in-memory translations is timed).
+  // -----------------------------------------------------------
+    translations.increment();
+  }
+
+  void recordError(Throwable error) {
+  // -----------------------------------------------------------
+  // Counts a failed translation by the type of its exception.
+  // -----------------------------------------------------------
+    String type = error.getClass().getSimpleName();
+    LongAdder count = errors.get(type);
+
+    if(count == null) {
+      errors.putIfAbsent(type, new LongAdder());
+      count = errors.get(type);
+    }
+    count.increment();
+  }
+
+  // MXBean Methods
+
+  public String getDirection() {
+    return direction;
+  }
+
+  public long getTranslations() {
+    return translations.sum();
+  }
+
+  public long getLetters() {
+    return letters.sum();
+  }
+
+  public long getWords() {
+    return words.sum();
+  }
+
+  public long getSentences() {
+    return sentences.sum();
+  }
+
+  public long getCharsIn() {
+    return chars_in.sum();
+  }
+
+  public long getCharsOut() {
+    return chars_out.sum();
+  }
+
+  public long getTableLoadMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(CodeTableRegistry.getLoadNanos());
+  }
+
+  public long getReadMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(read_nanos.sum());
+  }
+
+  public long getEncodeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(encode_nanos.sum());
+  }
+
+  public long getWriteMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(write_nanos.sum());
+  }
+
+  public Map<String, Long> getErrors() {
+    TreeMap<String, Long> error_counts = new TreeMap<String, Long>();
+
+    for(Map.Entry<String, LongAdder> error : errors.entrySet())
+      error_counts.put(error.getKey(), error.getValue().sum());
+
+    return error_counts;
+  }
+
+  public long[] getLatencyHistogram() {
+    long[] histogram = new long[LATENCY_BUCKETS];
+
+    for(int i = 0; i < LATENCY_BUCKETS; i++)
+      histogram[i] = latency_histogram.get(i);
+
+    return histogram;
+  }
+
+  public long getLatencyMeanMicros() {
+    long count = timed_translations.sum();
+
+    if(count == 0)
+      return 0;
+    else
+      return latency_nanos.sum() / count / 1000;
+  }
+
+  public long getLatencyMaxMicros() {
+    return latency_max_nanos.get() / 1000;
+  }
+
+  public long getLatencyP50Micros() {
+    return getLatencyPercentileMicros(0.50);
+  }
+
+  public long getLatencyP99Micros() {
+    return getLatencyPercentileMicros(0.99);
+  }
+
+  public void reset() {
+    translations.reset();
+    timed_translations.reset();
+    letters.reset();
+    words.reset();
+    sentences.reset();
+    chars_in.reset();
+    chars_out.reset();
+    read_nanos.reset();
+    encode_nanos.reset();
+    write_nanos.reset();
+    latency_nanos.reset();
+    latency_max_nanos.reset();
+    errors.clear();
+
+    for(int i = 0; i < LATENCY_BUCKETS; i++)
+      latency_histogram.set(i, 0);
+  }
+
+  // Private Methods
+
+  private long getLatencyPercentileMicros(double fraction) {
+  // -----------------------------------------------------------
+  // Returns upper bound (in us) of the histogram bucket holding
+  // the given fraction of translations, or 0 if none.
+  // -----------------------------------------------------------
+    long[] histogram = getLatencyHistogram();
+    long total = 0;
+
+    for(long count : histogram)
+      total = total + count;
+
+    long rank = (long) Math.ceil(fraction * total);
+    long seen = 0;
+
+    for(int i = 0; i < histogram.length; i++) {
+      seen = seen + histogram[i];
+      if(seen >= rank && seen > 0)
+        return 1L << i;
+    }
+    return 0;
+  }
+
+  private static void register(TranslationMetrics metrics) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+                  new ObjectName(OBJECT_NAME + metrics.direction));
+    }
+    catch(JMException e) {
+      // already registered (e.g. by another class loader)
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package Translator;
+
+// Import Java API Classes
+import java.util.Map;
+
+public interface TranslationMetricsMXBean {
+  // -----------------------------------------------------------
+  // Management interface of the metrics of one translation
+  // direction (e.g. ENGLISH_MORSE), registered with the
+  // platform MBean server as
+  // MessageTranslator:type=TranslationMetrics,direction=<dir>.
+  // -----------------------------------------------------------
+
+  public String getDirection();
+  // -----------------------------------------------------------
+  // Returns direction measured, as <from>_<to>.
+  // -----------------------------------------------------------
+
+  public long getTranslations();
+  // -----------------------------------------------------------
+  // Returns number of messages translated successfully.
+  // -----------------------------------------------------------
+
+  public long getLetters();
+  public long getWords();
+  public long getSentences();
+  // -----------------------------------------------------------
+  // Return numbers of letters, end-of-words and end-of-
+  // sentences translated.
+  // -----------------------------------------------------------
+
+  public long getCharsIn();
+  public long getCharsOut();
+  // -----------------------------------------------------------
+  // Return numbers of chars read (line ends counted as one
+  // char) and written.
+  // -----------------------------------------------------------
+
+  public long getTableLoadMillis();
+  // -----------------------------------------------------------
+  // Returns time spent loading code tables (for all
+  // directions, as the tables are shared).
+  // -----------------------------------------------------------
+
+  public long getReadMillis();
+  public long getEncodeMillis();
+  public long getWriteMillis();
+  // -----------------------------------------------------------
+  // Return time spent reading input, decoding and encoding
+  // symbols, and writing output. Reads and writes are timed
+  // per block (of a few KB, or per mapped window of a file);
+  // encode time is the rest of the translation time.
+  // -----------------------------------------------------------
+
+  public Map<String, Long> getErrors();
+  // -----------------------------------------------------------
+  // Returns number of failed translations by exception type.
+  // -----------------------------------------------------------
+
+  public long[] getLatencyHistogram();
+  // -----------------------------------------------------------
+  // Returns numbers of translations by latency: element 0
+  // counts those under 1 us, element n those from 2^(n-1) us
+  // up to 2^n us. (Of short in-memory translations, only a
+  // sample is timed.)
+  // -----------------------------------------------------------
+
+  public long getLatencyMeanMicros();
+  public long getLatencyMaxMicros();
+  public long getLatencyP50Micros();
+  public long getLatencyP99Micros();
+  // -----------------------------------------------------------
+  // Return mean, maximum, median and 99th percentile latency
+  // of translations (percentiles are upper bounds of their
+  // histogram buckets).
+  // -----------------------------------------------------------
+
+  public void reset();
+  // -----------------------------------------------------------
+  // Sets all counts of the direction back to zero.
+  // -----------------------------------------------------------
+}
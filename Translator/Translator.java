@@ -2,17 +2,43 @@ package Translator;
 
 // Import Java API Classes
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
 
 // Import Project Classes
 import Exceptions.InvalidCharFoundException;
+import InputMessageTypes.ArrayMessageSource;
 import InputMessageTypes.InputMessage;
 import OutputMessageTypes.OutputMessage;
 
 public class Translator {
 
+  // Symbolic Constants
+  private static final int NOT_ASCII = 0xFF;
+  private static final int TIMED_IN_MEMORY_INTERVAL = 16;
+
+  // In-Memory Translation Workspaces (per thread, per direction)
+  private static final ThreadLocal<Workspace[]> workspaces =
+                                  new ThreadLocal<Workspace[]>() {
+    protected Workspace[] initialValue() {
+      int type_count = MessageType.values().length;
+      return new Workspace[type_count * type_count];
+    }
+  };
+
   // Instance Variables
   private InputMessage input_message;
-  private OutputMessage output_message;
+  private OutputMessage[] output_messages;
+  private TranslationMetrics[] metrics;  // per output message
+
+  // Counts of the translation in progress
+  private long letter_count;
+  private long word_count;
+  private long sentence_count;
+  private long chars_read_start;
+  private long read_nanos_start;
+  private long[] chars_written_start;
+  private long[] write_nanos_start;
 
   // Constructpr
   public Translator(InputMessage mesg_in, 
@@ -20,44 +46,596 @@ public class Translator {
   // -----------------------------------------------------------
   // Passed specific InputMessage and OutputMessage types to
   // translate from and to
+  // -----------------------------------------------------------
+    this(mesg_in, new OutputMessage[] {mesg_out});
+  }
+
+  public Translator(InputMessage mesg_in,
+                    OutputMessage[] mesg_outs) {
+  // -----------------------------------------------------------
+  // Passed InputMessage to translate from and the OutputMessages
+  // to translate to, all written in a single pass over the
+  // input (so it is read and validated once). Each output
+  // message keeps its own buffer, which is written to its file
+  // only when full, so outputs are flushed independently of
+  // one another.
   // -----------------------------------------------------------
     input_message = mesg_in;
-    output_message = mesg_out;
+    output_messages = mesg_outs;
+
+    // Find metrics of each direction translated
+    MessageType from = MessageType.forMessage(mesg_in);
+    metrics = new TranslationMetrics[mesg_outs.length];
+
+    for(int i = 0; i < mesg_outs.length; i++) {
+      MessageType to = MessageType.forMessage(mesg_outs[i]);
+
+      if(from != null && to != null)
+        metrics[i] = TranslationMetrics.forDirection(from, to);
+    }
+
+    chars_written_start = new long[mesg_outs.length];
+    write_nanos_start = new long[mesg_outs.length];
   }
 
   // Translate Method
   public void translate() throws IOException, 
                    InvalidCharFoundException {
   // -----------------------------------------------------------
-  // Translates contents of input_message to output_message
+  // Translates contents of input_message to each output message
   // (written to file <original_file_name>_<type>.txt, where
   // <type> is _ENGLISH, _MORSE, or _BINARY.
+  //
+  // The translation is recorded in the TranslationMetrics of
+  // its direction(s).
+  // -----------------------------------------------------------
+    long start = System.nanoTime();
+
+    translatePart();
+    recordTranslation(System.nanoTime() - start);
+  }
+
+  void translatePart() throws IOException,
+                              InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Translates like translate, but records only the symbols,
+  // phases and errors of the translation in the metrics (used
+  // for the chunks of a ParallelTranslator, which records the
+  // whole translation itself). The messages are closed whether
+  // or not the translation succeeds.
+  // -----------------------------------------------------------
+    int output_count = output_messages.length;
+    long start = System.nanoTime();
+
+    startRecording();
+    try {
+      writeSymbols();
+
+      // Close files
+      input_message.close();
+      for(int i = 0; i < output_count; i++)
+        output_messages[i].close();
+    }
+    catch(IOException | RuntimeException | Error e) {
+      closeAfterFailure(e);
+      recordError(e);
+      throw e;
+    }
+    recordSymbols(System.nanoTime() - start);
+  }
+
+  public void translatePipelined() throws IOException,
+                                  InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Translates like translate, but in three stages running at
+  // once: a reader thread reads and validates input_message
+  // into batches of symbols, handed through a SymbolRing to
+  // this thread, which encodes them into each output message,
+  // whose writer (e.g. an AsyncFileWriter) writes the files.
+  // A single file that cannot be split into chunks can so use
+  // up to three cores.
+  //
+  // The output is the same as that of translate: an invalid
+  // symbol is thrown once the symbols read before it have
+  // been written.
+  // -----------------------------------------------------------
+    long start = System.nanoTime();
+
+    translatePipelinedPart();
+    recordTranslation(System.nanoTime() - start);
+  }
+
+  void translatePipelinedPart() throws IOException,
+                                       InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Translates like translatePipelined, but records only the
+  // symbols, phases and errors of the translation (like
+  // translatePart).
+  // -----------------------------------------------------------
+    int output_count = output_messages.length;
+    long start = System.nanoTime();
+    SymbolRing ring = new SymbolRing();
+    Thread reader = new Thread(new SymbolReader(input_message, ring),
+                               "translator-reader");
+
+    startRecording();
+    reader.setDaemon(true);
+    reader.start();
+    try {
+      writeSymbols(ring);
+      waitFor(reader);
+
+      // Close files
+      input_message.close();
+      for(int i = 0; i < output_count; i++)
+        output_messages[i].close();
+    }
+    catch(IOException | RuntimeException | Error e) {
+      ring.cancel();
+      try {
+        waitFor(reader);
+      }
+      finally {
+        closeAfterFailure(e);
+        recordError(e);
+      }
+      throw e;
+    }
+    recordSymbols(System.nanoTime() - start);
+  }
+
+  public void translateAvailable() throws IOException,
+                                  InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Translates the symbols input_message can supply now to each
+  // output message and flushes them, leaving all messages open.
+  // Used to follow a growing file: called again once more has
+  // been appended, it carries on where it stopped. The symbols
+  // (not the translation) are recorded in the metrics.
   // -----------------------------------------------------------
-    String current_letter;
+    long start = System.nanoTime();
 
-    // Read first letter of mesg_in
-    current_letter = input_message.readLetter();
+    startRecording();
+    try {
+      writeSymbols();
 
-    // Read letter-by-letter until end-of-file found
-    while(current_letter != null) {
+      for(int i = 0; i < output_messages.length; i++)
+        output_messages[i].flush();
+    }
+    catch(IOException | RuntimeException e) {
+      recordError(e);
+      throw e;
+    }
+    recordSymbols(System.nanoTime() - start);
+  }
+
+  // In-Memory Translation Methods
+
+  public static String translate(CharSequence message,
+                                 MessageType from, MessageType to)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Returns message (of type from) translated to type to, for
+  // short messages held in memory. Thread-safe: each thread
+  // reuses its own input and output buffers, so a translation
+  // allocates nothing but the String returned.
+  //
+  // Throws InvalidCharFoundException (or
+  // InvalidBinaryCodeFoundException) for an invalid message.
+  // Throws IOException if the code tables cannot be loaded.
+  // -----------------------------------------------------------
+    Workspace workspace = getWorkspace(from, to);
+    int length = message.length();
+    byte[] message_bytes = workspace.getMessageBytes(length);
+
+    // Store message as ASCII bytes (as ReaderMessageSource does)
+    for(int i = 0; i < length; i++) {
+      char chr = message.charAt(i);
+      message_bytes[i] = (byte) (chr < 0x80 ? chr : NOT_ASCII);
+    }
+
+    translateInWorkspace(workspace, from, to, message_bytes, length);
+    return workspace.translated.toString();
+  }
+
+  public static byte[] translate(byte[] message,
+                                 MessageType from, MessageType to)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Returns message (ASCII bytes of type from) translated to
+  // type to, as ASCII bytes. Thread-safe, and allocates nothing
+  // but the array returned.
+  // -----------------------------------------------------------
+    Workspace workspace = getWorkspace(from, to);
+
+    translateInWorkspace(workspace, from, to, message, message.length);
+    return workspace.translated.toBytes();
+  }
+
+  // Private Methods
+
+  private void writeSymbols() throws IOException,
+                              InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Writes every symbol of input_message to each output
+  // message (leaving both open), counting the symbols (in
+  // local variables, which costs next to nothing per symbol).
+  // -----------------------------------------------------------
+    int current_symbol;
+    int output_count = output_messages.length;
+    long symbols = 0;
+    long words = 0;
+    long sentences = 0;
+
+    // Read first symbol of mesg_in
+    current_symbol = input_message.readSymbol();
+
+    // Read symbol-by-symbol until end-of-file found
+    while(current_symbol != InputMessage.END_OF_MESSAGE) {
       
       // Write appropriate chars if end-of-word or end-of-file
-      if(input_message.endOfLine())
-        output_message.writeEndOfSentence();
+      if(current_symbol == InputMessage.END_OF_LINE) {
+        for(int i = 0; i < output_count; i++)
+          output_messages[i].writeEndOfSentence();
+        sentences = sentences + 1;
+      }
       else
-        if(input_message.endOfWord())
-          output_message.writeEndOfWord();
+        if(current_symbol == InputMessage.END_OF_WORD) {
+          for(int i = 0; i < output_count; i++)
+            output_messages[i].writeEndOfWord();
+          words = words + 1;
+        }
       else
-        // Write single letter to mesg_out
-        output_message.writeLetter(
-                  input_message.getOrdinal(current_letter));
+        // Write single letter (ordinal value) to each mesg_out
+        for(int i = 0; i < output_count; i++)
+          output_messages[i].writeLetter(current_symbol);
+
+      symbols = symbols + 1;
+
+      // Read next symbol from mesg_in
+      current_symbol = input_message.readSymbol();
+    }
+
+    letter_count = letter_count + (symbols - words - sentences);
+    word_count = word_count + words;
+    sentence_count = sentence_count + sentences;
+  }
+
+  private void writeSymbols(SymbolRing ring) throws IOException,
+                                      InvalidCharFoundException {
+  // -----------------------------------------------------------
+  // Writes every symbol of the batches taken from ring (up to
+  // END_OF_MESSAGE) to each output message, like writeSymbols.
+  // -----------------------------------------------------------
+    int output_count = output_messages.length;
+    long symbols = 0;
+    long words = 0;
+    long sentences = 0;
+    boolean end_of_message = false;
+
+    while(!end_of_message) {
+      int[] batch = ring.take();
+      int length = ring.getLength();
+
+      for(int n = 0; n < length; n++) {
+        int current_symbol = batch[n];
+
+        if(current_symbol == InputMessage.END_OF_MESSAGE) {
+          end_of_message = true;
+          break;
+        }
+
+        // Write appropriate chars if end-of-word or end-of-file
+        if(current_symbol == InputMessage.END_OF_LINE) {
+          for(int i = 0; i < output_count; i++)
+            output_messages[i].writeEndOfSentence();
+          sentences = sentences + 1;
+        }
+        else
+          if(current_symbol == InputMessage.END_OF_WORD) {
+            for(int i = 0; i < output_count; i++)
+              output_messages[i].writeEndOfWord();
+            words = words + 1;
+          }
+        else
+          // Write single letter (ordinal value) to each mesg_out
+          for(int i = 0; i < output_count; i++)
+            output_messages[i].writeLetter(current_symbol);
+
+        symbols = symbols + 1;
+      }
+
+      // Throws failure of reader (if any)
+      ring.release();
+    }
+
+    letter_count = letter_count + (symbols - words - sentences);
+    word_count = word_count + words;
+    sentence_count = sentence_count + sentences;
+  }
+
+  private void closeAfterFailure(Throwable failure) {
+  // -----------------------------------------------------------
+  // Closes input and output messages once a translation has
+  // failed, so no file is left open (the output still buffered
+  // is discarded, as is the partial translation). Errors
+  // closing them are added to failure (as suppressed
+  // exceptions).
+  // -----------------------------------------------------------
+    try {
+      input_message.close();
+    }
+    catch(IOException | RuntimeException e) {
+      if(e != failure)
+        failure.addSuppressed(e);
+    }
+
+    for(int i = 0; i < output_messages.length; i++)
+      try {
+        output_messages[i].abort();
+      }
+      catch(IOException | RuntimeException e) {
+        if(e != failure)
+          failure.addSuppressed(e);
+      }
+  }
+
+  private static void waitFor(Thread thread) throws IOException {
+    try {
+      thread.join();
+    }
+    catch(InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("translation interrupted");
+    }
+  }
+
+  private void startRecording() {
+  // -----------------------------------------------------------
+  // Starts counting a translation (the messages' own counts
+  // are cumulative, so only their increase is recorded).
+  // -----------------------------------------------------------
+    letter_count = 0;
+    word_count = 0;
+    sentence_count = 0;
+    chars_read_start = input_message.getCharsRead();
+    read_nanos_start = input_message.getReadNanos();
+
+    for(int i = 0; i < output_messages.length; i++) {
+      chars_written_start[i] = output_messages[i].getCharsWritten();
+      write_nanos_start[i] = output_messages[i].getWriteNanos();
+    }
+  }
+
+  private void recordSymbols(long elapsed_nanos) {
+  // -----------------------------------------------------------
+  // Records counts of the translation in the metrics of each
+  // direction, and (unless elapsed_nanos is negative) its
+  // phases. Reading and writing are timed per block by the
+  // messages; the rest of elapsed_nanos is spent decoding and
+  // encoding (shared evenly between the output messages).
+  // -----------------------------------------------------------
+    int output_count = output_messages.length;
+    long chars_read = input_message.getCharsRead() - chars_read_start;
+    long read = input_message.getReadNanos() - read_nanos_start;
+    long encode = elapsed_nanos - read;
+
+    for(int i = 0; i < output_count; i++)
+      encode = encode - (output_messages[i].getWriteNanos() -
+                         write_nanos_start[i]);
+
+    for(int i = 0; i < output_count; i++)
+      if(metrics[i] != null) {
+        metrics[i].recordSymbols(letter_count, word_count,
+              sentence_count, chars_read,
+              output_messages[i].getCharsWritten() -
+                                        chars_written_start[i]);
+
+        if(elapsed_nanos >= 0)
+          metrics[i].recordPhases(read, 
+                Math.max(0, encode / output_count),
+                output_messages[i].getWriteNanos() -
+                                        write_nanos_start[i]);
+      }
+  }
+
+  void recordTranslation(long elapsed_nanos) {
+  // -----------------------------------------------------------
+  // Records a whole translation taking elapsed_nanos (or of
+  // unmeasured time if elapsed_nanos is negative).
+  // -----------------------------------------------------------
+    for(int i = 0; i < metrics.length; i++)
+      if(metrics[i] != null)
+        if(elapsed_nanos >= 0)
+          metrics[i].recordTranslation(elapsed_nanos);
+        else
+          metrics[i].recordUntimedTranslation();
+  }
+
+  private void recordError(Throwable error) {
+    for(int i = 0; i < metrics.length; i++)
+      if(metrics[i] != null)
+        metrics[i].recordError(error);
+  }
+
+  private static Workspace getWorkspace(MessageType from,
+                            MessageType to) throws IOException {
+  // -----------------------------------------------------------
+  // Returns current thread's workspace for translating from
+  // type from to type to (created on first use).
+  // -----------------------------------------------------------
+    Workspace[] thread_workspaces = workspaces.get();
+    int index = from.ordinal() * MessageType.values().length +
+                to.ordinal();
+
+    if(thread_workspaces[index] == null)
+      thread_workspaces[index] = new Workspace(from, to);
+
+    return thread_workspaces[index];
+  }
+
+  private static void translateInWorkspace(Workspace workspace,
+                          MessageType from, MessageType to,
+                          byte[] message, int length)
+                                              throws IOException {
+  // -----------------------------------------------------------
+  // Translates bytes 0..length-1 of message into the
+  // workspace's translation buffer. A workspace left part way
+  // through a translation (by an invalid message) is dropped,
+  // so the next translation starts from fresh state.
+  //
+  // Only one translation in TIMED_IN_MEMORY_INTERVAL is timed,
+  // as reading the clock would take a large part of the time
+  // of translating a short message.
+  // -----------------------------------------------------------
+    Translator translator = workspace.translator;
+    workspace.translation_count = workspace.translation_count + 1;
+    boolean timed = 
+        (workspace.translation_count % TIMED_IN_MEMORY_INTERVAL) == 0;
+    long start = timed ? System.nanoTime() : 0;
+
+    try {
+      workspace.source.setMessage(message, 0, length);
+      translator.input_message.rewind();
+      translator.output_messages[0].setEncoderState(0);
+      workspace.translated.reset();
+
+      translator.startRecording();
+      translator.writeSymbols();
+      translator.output_messages[0].flush();
+
+      long elapsed = timed ? System.nanoTime() - start : -1;
+      translator.recordSymbols(elapsed);
+      translator.recordTranslation(elapsed);
+    }
+    catch(IOException | RuntimeException | Error e) {
+      translator.recordError(e);
+      workspaces.get()[from.ordinal() * MessageType.values().length +
+                       to.ordinal()] = null;
+      throw e;
+    }
+  }
+
+  // Pipeline Reader Stage
+
+  private static class SymbolReader implements Runnable {
+    // ---------------------------------------------------------
+    // Reads (and validates) every symbol of input_message into
+    // the batches of ring, ending with END_OF_MESSAGE, or with
+    // the failure that stopped reading.
+    // ---------------------------------------------------------
+    private InputMessage input_message;
+    private SymbolRing ring;
+
+    SymbolReader(InputMessage input_message, SymbolRing ring) {
+      this.input_message = input_message;
+      this.ring = ring;
+    }
+
+    public void run() {
+      int current_symbol = 0;
+
+      try {
+        while(current_symbol != InputMessage.END_OF_MESSAGE) {
+          int[] batch = ring.claim();
+          int length = 0;
+
+          // Consumer failed?
+          if(batch == null)
+            return;
+
+          try {
+            do {
+              current_symbol = input_message.readSymbol();
+              batch[length] = current_symbol;
+              length = length + 1;
+            } while(current_symbol != InputMessage.END_OF_MESSAGE &&
+                    length < batch.length);
+          }
+          catch(Throwable e) {
+            ring.publish(length, e);
+            return;
+          }
+
+          ring.publish(length, null);
+        }
+      }
+      catch(IOException e) {
+        // Interrupted waiting for the consumer (never, as the
+        // reader thread is not shared): nothing more to read for
+      }
+    }
+  }
+
+  // In-Memory Translation Workspace
+
+  private static class Workspace {
+    private ArrayMessageSource source =
+                          new ArrayMessageSource(new byte[0]);
+    private byte[] message_bytes = new byte[256];
+    private TranslationBuffer translated = new TranslationBuffer();
+    private Translator translator;
+    private long translation_count = 0;
+
+    Workspace(MessageType from, MessageType to) throws IOException {
+      translator = new Translator(
+        from.createInputMessage(source),
+        to.createOutputMessage(new PrintWriter(translated)));
+    }
+
+    byte[] getMessageBytes(int length) {
+    // ---------------------------------------------------------
+    // Returns reusable buffer holding at least length bytes.
+    // ---------------------------------------------------------
+      if(length > message_bytes.length)
+        message_bytes = new byte[Math.max(length,
+                                          2 * message_bytes.length)];
+      return message_bytes;
+    }
+  }
+
+  private static class TranslationBuffer extends Writer {
+    // ---------------------------------------------------------
+    // Reusable in-memory destination of a translation (like
+    // CharArrayWriter, but unsynchronized and convertible to
+    // ASCII bytes without an intermediate String).
+    // ---------------------------------------------------------
+    private char[] chars = new char[1024];
+    private int length = 0;
+
+    public void write(char[] buffer, int start, int count) {
+      if(length + count > chars.length) {
+        char[] bigger = new char[Math.max(length + count,
+                                          2 * chars.length)];
+        System.arraycopy(chars, 0, bigger, 0, length);
+        chars = bigger;
+      }
+
+      System.arraycopy(buffer, start, chars, length, count);
+      length = length + count;
+    }
+
+    public void flush() {
+    }
+
+    public void close() {
+    }
+
+    void reset() {
+      length = 0;
+    }
+
+    public String toString() {
+      return new String(chars, 0, length);
+    }
+
+    byte[] toBytes() {
+      byte[] bytes = new byte[length];
+
+      for(int i = 0; i < length; i++)
+        bytes[i] = (byte) chars[i];
 
-      // Read next letter from mesg_in
-      current_letter = input_message.readLetter();
+      return bytes;
     }
-    
-    // Close files
-    input_message.close();
-    output_message.close();
   }
 }
\ No newline at end of file